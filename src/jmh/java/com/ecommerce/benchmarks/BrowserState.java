@@ -0,0 +1,48 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.config.AdaptiveWait;
+import com.ecommerce.config.DriverFactory;
+import com.ecommerce.config.DriverServices;
+import com.ecommerce.stub.StorefrontStub;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * One headless browser and one storefront stub (no injected latency) per benchmark trial,
+ * so the measurements are framework and browser cost only.
+ */
+@State(Scope.Benchmark)
+public class BrowserState {
+
+    StorefrontStub stub;
+    WebDriver driver;
+    WebDriverWait wait;
+
+    @Setup(Level.Trial)
+    public void start() {
+        stub = new StorefrontStub(0, 0).start(0);
+        System.setProperty("baseUrl", stub.getBaseUrl());
+        // Keep the latency recorder, the admission sampler and the page performance capture out of the measured path
+        System.setProperty("commandMetricsEnabled", "false");
+        System.setProperty("admissionControlEnabled", "false");
+        System.setProperty("pagePerformanceEnabled", "false");
+        driver = DriverFactory.createDriver();
+        wait = new AdaptiveWait(driver);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        driver.quit();
+        DriverServices.shutdown();
+        stub.stop();
+    }
+
+    void open(String path) {
+        driver.get(stub.getBaseUrl() + path);
+    }
+}
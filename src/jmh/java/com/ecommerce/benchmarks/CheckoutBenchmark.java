@@ -0,0 +1,87 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.config.NetworkTracker;
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.fixtures.CartFixtures;
+import com.ecommerce.pages.CheckoutPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.Select;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CheckoutPage.fillGuestShippingForm (FormFiller, one script for all fields) against typing
+ * every field with sendKeys. Both do the same work around the fields (network waits, region
+ * selection, shipping rates), so the difference is the form filling itself.
+ * Each invocation starts on a fresh checkout page holding a fixture cart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    private CheckoutPage checkout;
+
+    @Setup(Level.Invocation)
+    public void openCheckout(BrowserState browser) {
+        CartFixtures.openCartWith(browser.driver, browser.wait, TestConfig.getFixtureSku(), 1);
+        browser.open("/checkout/");
+        checkout = new CheckoutPage(browser.driver, browser.wait);
+        checkout.isLoaded();
+    }
+
+    @Benchmark
+    public CheckoutPage fillGuestShippingForm() {
+        checkout.fillGuestShippingForm("qa+bench@example.com");
+        return checkout;
+    }
+
+    @Benchmark
+    public void typeEachField(BrowserState browser) {
+        browser.wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("#customer-email")));
+        browser.wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("input[name='firstname']")));
+        NetworkTracker network = NetworkTracker.of(browser.driver);
+        NetworkTracker.Expectation shippingRates = network.expect("estimate-shipping-methods");
+        browser.driver.findElement(By.cssSelector("#customer-email")).sendKeys("qa+bench@example.com");
+        browser.driver.findElement(By.cssSelector("input[name='firstname']")).sendKeys("Test");
+        browser.driver.findElement(By.cssSelector("input[name='lastname']")).sendKeys("Automation");
+        browser.driver.findElement(By.cssSelector("input[name='street[0]']")).sendKeys("123 Test Street");
+        browser.driver.findElement(By.cssSelector("input[name='city']")).sendKeys("Paris");
+        new Select(browser.driver.findElement(By.cssSelector("select[name='country_id']"))).selectByVisibleText("France");
+        browser.driver.findElement(By.cssSelector("input[name='postcode']")).sendKeys("75001");
+        browser.driver.findElement(By.cssSelector("input[name='telephone']")).sendKeys("0102030405");
+        Duration timeout = Duration.ofSeconds(TestConfig.getExplicitWaitSeconds());
+        if (!network.awaitIdle(Duration.ofMillis(100), timeout)) {
+            System.out.println("Network still busy after typing the shipping form, continuing");
+        }
+        try {
+            WebElement stateSelect = browser.wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("select[name='region_id']")));
+            Select state = new Select(stateSelect);
+            browser.wait.until(driver -> state.getOptions().size() > 1);
+            state.selectByIndex(1);
+        } catch (Exception e) {
+            // Same as the page object: no region to select
+        }
+        if (!shippingRates.await(timeout)) {
+            System.out.println("No shipping rate estimate completed, waiting for the shipping methods directly");
+        }
+        browser.wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("input[name='shipping_method']")));
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.pages.HomePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of locating the search input: one findElement per locator strategy, against
+ * HomePage's LocatorResolver lookup (candidate list evaluated in one script, winner cached).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocatorBenchmark {
+
+    @Param({"id", "css", "xpath", "cssChain"})
+    public String strategy;
+
+    private By locator;
+
+    @Setup(Level.Trial)
+    public void openHome(BrowserState browser) {
+        browser.open("/");
+        switch (strategy) {
+            case "id":
+                locator = By.id("search");
+                break;
+            case "css":
+                locator = By.cssSelector("input#search[name='q']");
+                break;
+            case "xpath":
+                locator = By.xpath("//input[@id='search' and @name='q']");
+                break;
+            default:
+                locator = By.cssSelector("form.form.minisearch input#search");
+        }
+    }
+
+    @Benchmark
+    public WebElement findElement(BrowserState browser) {
+        return browser.driver.findElement(locator);
+    }
+
+    @Benchmark
+    public boolean homePageIsLoaded(BrowserState browser) {
+        // Goes through HomePage.findSearchInputElement (LocatorResolver)
+        return new HomePage(browser.driver, browser.wait).isLoaded();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.pages.DomSnapshot;
+import com.ecommerce.pages.ProductPage;
+import com.ecommerce.pages.SearchResultsPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the search result tiles with one DomSnapshot call versus a findElement/getText per field,
+ * and SearchResultsPage.openProductByName end to end (snapshot, match, click).
+ * The results page is reloaded before every invocation; operations are in the millisecond range,
+ * so the per-invocation setup does not distort them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final By PRODUCT_ITEMS = By.cssSelector("ol.products.list.items.product-items li.product-item");
+
+    @Setup(Level.Invocation)
+    public void openResults(BrowserState browser) {
+        browser.open("/catalogsearch/result/?q=jacket");
+    }
+
+    @Benchmark
+    public List<DomSnapshot.Item> snapshotProducts(BrowserState browser) {
+        return new SearchResultsPage(browser.driver, browser.wait).getProducts();
+    }
+
+    @Benchmark
+    public void perElementProducts(BrowserState browser, Blackhole blackhole) {
+        for (WebElement item : browser.driver.findElements(PRODUCT_ITEMS)) {
+            WebElement link = item.findElement(By.cssSelector("a.product-item-link"));
+            blackhole.consume(link.getText());
+            blackhole.consume(link.getAttribute("href"));
+            blackhole.consume(item.findElement(By.cssSelector("span.price")).getText());
+        }
+    }
+
+    @Benchmark
+    public ProductPage openProductByName(BrowserState browser) {
+        return new SearchResultsPage(browser.driver, browser.wait).openProductByName("jacket");
+    }
+}
@@ -0,0 +1,197 @@
+package com.ecommerce.config;
+
+import com.ecommerce.metrics.LatencyHistogram;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Explicit wait with per-condition timeouts learned from history, used with implicit waits disabled.
+ * Each wait statement is identified by its call site (e.g. "LocatorResolver.find:71@HomePage.search");
+ * once enough completions have been seen, its timeout shrinks to a multiple of the observed p95
+ * (never below adaptiveWaitMinMillis nor above explicitWaitSeconds), so a condition that normally
+ * completes in 300 ms fails after a few seconds instead of the full explicit wait.
+ * Polling starts fast and backs off, so quick conditions are seen early without hammering the driver.
+ * History is kept per target (storefront host, or the stub and its injected latency): timings learned
+ * against the local stub never shorten the waits of a run against the real store.
+ */
+public class AdaptiveWait extends WebDriverWait {
+
+    private static final String PACKAGE = "com.ecommerce.";
+    private static final Duration FIRST_POLL = Duration.ofMillis(50);
+    private static final Duration MAX_POLL = Duration.ofMillis(500);
+    private static final int MIN_SAMPLES = 5;
+
+    private static final Map<String, LatencyHistogram> CURRENT = new ConcurrentHashMap<>();
+    private static final String TARGET = target();
+    private static final Properties OTHER_TARGETS = new Properties();
+    private static final Map<String, Long> BASELINE_P95_MILLIS = loadHistory();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final WebDriver driver;
+    private final Duration maxTimeout;
+
+    public AdaptiveWait(WebDriver driver) {
+        this(driver, Duration.ofSeconds(TestConfig.getExplicitWaitSeconds()));
+    }
+
+    public AdaptiveWait(WebDriver driver, Duration maxTimeout) {
+        super(driver, maxTimeout);
+        this.driver = driver;
+        this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        String key = callSite();
+        Duration timeout = timeoutFor(key, maxTimeout);
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long pollMillis = FIRST_POLL.toMillis();
+        RuntimeException lastException = null;
+        while (true) {
+            try {
+                V value = isTrue.apply(driver);
+                if (value != null && (!(value instanceof Boolean) || (Boolean) value)) {
+                    CURRENT.computeIfAbsent(key, k -> new LatencyHistogram()).record(System.nanoTime() - start);
+                    return value;
+                }
+                lastException = null;
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastException = e;
+            }
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                throw new TimeoutException("Condition at " + key + " not met after " + timeout.toMillis()
+                    + " ms (max " + maxTimeout.toMillis() + " ms): " + isTrue, lastException);
+            }
+            try {
+                Thread.sleep(Math.min(pollMillis, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting at " + key, e);
+            }
+            pollMillis = Math.min(MAX_POLL.toMillis(), pollMillis * 3 / 2);
+        }
+    }
+
+    /**
+     * Timeout for a call site: the max timeout until enough history exists, then a multiple of its p95.
+     */
+    static Duration timeoutFor(String key, Duration maxTimeout) {
+        long typicalMillis = -1;
+        LatencyHistogram current = CURRENT.get(key);
+        if (current != null && current.getCount() >= MIN_SAMPLES) {
+            typicalMillis = current.getPercentileMicros(0.95) / 1000;
+        }
+        Long baseline = BASELINE_P95_MILLIS.get(key);
+        if (baseline != null) {
+            typicalMillis = Math.max(typicalMillis, baseline);
+        }
+        if (typicalMillis < 0) {
+            return maxTimeout;
+        }
+        long adaptive = Math.max(TestConfig.getAdaptiveWaitMinMillis(), typicalMillis * TestConfig.getAdaptiveWaitMultiplier());
+        return Duration.ofMillis(Math.min(adaptive, maxTimeout.toMillis()));
+    }
+
+    /**
+     * Innermost project frame (the wait statement) plus the outermost page-object method it runs for.
+     */
+    private static String callSite() {
+        List<StackWalker.StackFrame> frames = STACK_WALKER.walk(stream -> stream
+            .filter(frame -> frame.getClassName().startsWith(PACKAGE) && !frame.getClassName().equals(AdaptiveWait.class.getName()))
+            .collect(Collectors.toList()));
+        if (frames.isEmpty()) {
+            return "unknown";
+        }
+        String site = describe(frames.get(0)) + ":" + frames.get(0).getLineNumber();
+        for (int i = frames.size() - 1; i > 0; i--) {
+            if (frames.get(i).getClassName().startsWith(PACKAGE + "pages.")) {
+                return site + "@" + describe(frames.get(i));
+            }
+        }
+        return site;
+    }
+
+    private static String describe(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1).replaceAll("\\$.*", "")
+            + "." + frame.getMethodName().replaceAll("^lambda\\$(\\w+)\\$\\d+$", "$1");
+    }
+
+    /**
+     * Persists the p95 of every call site seen in this run so the next run starts adaptive.
+     */
+    public static void saveHistory() {
+        Properties history = new Properties();
+        history.putAll(OTHER_TARGETS);
+        BASELINE_P95_MILLIS.forEach((key, millis) -> history.setProperty(TARGET + "|" + key, String.valueOf(millis)));
+        CURRENT.forEach((key, histogram) -> {
+            if (histogram.getCount() >= MIN_SAMPLES || !BASELINE_P95_MILLIS.containsKey(key)) {
+                history.setProperty(TARGET + "|" + key, String.valueOf(histogram.getPercentileMicros(0.95) / 1000));
+            }
+        });
+        Path file = Paths.get(TestConfig.getWaitHistoryFile());
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                history.store(out, "Learned p95 (ms) per target and wait call site");
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to save wait history to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The storefront the waits are learned against: its host, or the stub with its injected latency.
+     */
+    private static String target() {
+        if (TestConfig.isStubEnabled()) {
+            return "stub+" + TestConfig.getStubLatencyMillis() + "ms";
+        }
+        String host = URI.create(TestConfig.getBaseUrl()).getHost();
+        return host != null ? host : TestConfig.getBaseUrl();
+    }
+
+    private static Map<String, Long> loadHistory() {
+        Map<String, Long> baseline = new ConcurrentHashMap<>();
+        Path file = Paths.get(TestConfig.getWaitHistoryFile());
+        if (!Files.isReadable(file)) {
+            return baseline;
+        }
+        Properties history = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            history.load(in);
+            String prefix = TARGET + "|";
+            for (String key : history.stringPropertyNames()) {
+                if (key.startsWith(prefix)) {
+                    baseline.put(key.substring(prefix.length()), Long.parseLong(history.getProperty(key)));
+                } else if (key.contains("|")) {
+                    // Other targets are kept as they are; entries without a target predate the split and are dropped
+                    OTHER_TARGETS.setProperty(key, history.getProperty(key));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Ignoring unreadable wait history " + file + ": " + e.getMessage());
+        }
+        return baseline;
+    }
+}
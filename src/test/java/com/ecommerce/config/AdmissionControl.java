@@ -0,0 +1,245 @@
+package com.ecommerce.config;
+
+import com.ecommerce.metrics.ProcessMemory;
+import com.ecommerce.metrics.StepTimings;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limits how many browser sessions exist at once from what the machine can hold, instead of a fixed number.
+ * Once a second it samples available memory, CPU load and the memory of the browser processes (ProcessMemory),
+ * learns the memory cost of one session and resizes a semaphore to the live sessions plus as many new ones as
+ * fit under the memory ceiling; no new session is admitted while the CPU is saturated. One session is always
+ * admitted, so a run can never stall on its own limit. Every wait for admission is logged.
+ */
+public class AdmissionControl {
+
+    private static final long MB = 1024 * 1024;
+    private static final long POLL_MILLIS = 250;
+
+    private static final ResizableSemaphore PERMITS = new ResizableSemaphore();
+    private static final Set<WebDriver> SESSIONS = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private static final AtomicInteger STARTING = new AtomicInteger();
+
+    private static final AtomicInteger ADMITTED = new AtomicInteger();
+    private static final AtomicInteger WAITS = new AtomicInteger();
+    private static final AtomicLong WAIT_MILLIS = new AtomicLong();
+    private static final AtomicLong PEAK_USED_BYTES = new AtomicLong();
+
+    private static ScheduledExecutorService sampler;
+    private static volatile Sample last;
+    private static volatile long sessionBytes = TestConfig.getAdmissionSessionEstimateMb() * MB;
+    private static int limit;
+    private static int minLimit = Integer.MAX_VALUE;
+    private static int maxLimit;
+
+    private AdmissionControl() {
+    }
+
+    /**
+     * Blocks until a new browser session may start.
+     *
+     * @param abandon checked while waiting; once it returns true the wait ends without a permit
+     *                (e.g. a pooled session became idle and can be reused instead)
+     * @return true if admitted, in which case {@link #started} or {@link #failed} must follow
+     */
+    public static boolean acquire(BooleanSupplier abandon) {
+        if (!TestConfig.isAdmissionControlEnabled()) {
+            return true;
+        }
+        startSampler();
+        long start = System.nanoTime();
+        try {
+            while (!PERMITS.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (abandon.getAsBoolean()) {
+                    recordWait(start, "gave up waiting, reusing an idle session");
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for admission of a browser session", e);
+        }
+        STARTING.incrementAndGet();
+        ADMITTED.incrementAndGet();
+        if (System.nanoTime() - start > POLL_MILLIS * 1_000_000) {
+            recordWait(start, "admitted");
+        }
+        return true;
+    }
+
+    /**
+     * Registers the session an admitted thread started; its permit is held until {@link #released}.
+     */
+    public static void started(WebDriver driver) {
+        if (!TestConfig.isAdmissionControlEnabled()) {
+            return;
+        }
+        STARTING.decrementAndGet();
+        SESSIONS.add(driver);
+    }
+
+    /**
+     * Gives the permit back after an admitted session failed to start.
+     */
+    public static void failed() {
+        if (!TestConfig.isAdmissionControlEnabled()) {
+            return;
+        }
+        STARTING.decrementAndGet();
+        PERMITS.release();
+    }
+
+    /**
+     * Gives the permit of a session back; call it when the session is quit. Unknown drivers are ignored.
+     */
+    public static void released(WebDriver driver) {
+        if (SESSIONS.remove(driver)) {
+            PERMITS.release();
+        }
+    }
+
+    /**
+     * Stops sampling and prints how often and how long tests waited for admission.
+     */
+    public static void shutdown() {
+        synchronized (AdmissionControl.class) {
+            if (sampler == null) {
+                return;
+            }
+            sampler.shutdownNow();
+            sampler = null;
+            System.out.println("AdmissionControl: " + ADMITTED.get() + " sessions admitted, " + WAITS.get() + " waits ("
+                + WAIT_MILLIS.get() + " ms), limit between " + minLimit + " and " + maxLimit + ", ~"
+                + sessionBytes / MB + " MB per session, peak memory " + PEAK_USED_BYTES.get() / MB + " of "
+                + (last == null ? "?" : String.valueOf(last.ceilingBytes / MB)) + " MB ceiling");
+        }
+    }
+
+    private static synchronized void startSampler() {
+        if (sampler != null) {
+            return;
+        }
+        // Sized before the first permit is taken so the first tests are gated too
+        resize();
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "admission-control");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(AdmissionControl::resize, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private static void resize() {
+        Sample sample = Sample.take();
+        last = sample;
+        int live = SESSIONS.size();
+        int starting = STARTING.get();
+        if (live > 0 && sample.childBytes > 0) {
+            // Smoothed, since sessions in the middle of a page load or a restart briefly skew the figure
+            sessionBytes = (long) (0.7 * sessionBytes + 0.3 * (sample.childBytes / live));
+        }
+        PEAK_USED_BYTES.accumulateAndGet(sample.usedBytes, Math::max);
+        // Sessions still starting have not reached their full size yet
+        long headroom = sample.ceilingBytes - sample.usedBytes - starting * sessionBytes / 2;
+        int newSessions = sample.cpuLoad > TestConfig.getAdmissionMaxCpuLoad() ? 0 : (int) Math.max(0, headroom / Math.max(MB, sessionBytes));
+        int target = Math.max(1, Math.min(live + starting + newSessions, TestConfig.getAdmissionMaxSessions()));
+        synchronized (AdmissionControl.class) {
+            PERMITS.resize(target - limit);
+            limit = target;
+            minLimit = Math.min(minLimit, target);
+            maxLimit = Math.max(maxLimit, target);
+        }
+    }
+
+    private static void recordWait(long startNanos, String outcome) {
+        long nanos = System.nanoTime() - startNanos;
+        WAITS.incrementAndGet();
+        WAIT_MILLIS.addAndGet(nanos / 1_000_000);
+        StepTimings.record("AdmissionControl.wait", nanos);
+        Sample sample = last;
+        System.out.println("AdmissionControl: " + Thread.currentThread().getName() + " waited " + nanos / 1_000_000
+            + " ms for a browser session, " + outcome + " (" + SESSIONS.size() + " live, limit " + limit
+            + (sample == null ? "" : ", " + sample.availableBytes() / MB + " MB available, CPU " + Math.round(sample.cpuLoad * 100) + "%")
+            + ")");
+    }
+
+    private static final class Sample {
+        private final long totalBytes;
+        private final long usedBytes;
+        private final long ceilingBytes;
+        private final long childBytes;
+        private final double cpuLoad;
+
+        private Sample(long totalBytes, long usedBytes, long childBytes, double cpuLoad) {
+            this.totalBytes = totalBytes;
+            this.usedBytes = usedBytes;
+            long configured = TestConfig.getAdmissionMemoryCeilingMb() * MB;
+            this.ceilingBytes = configured > 0 ? configured : totalBytes * 85 / 100;
+            this.childBytes = childBytes;
+            this.cpuLoad = cpuLoad;
+        }
+
+        private long availableBytes() {
+            return totalBytes - usedBytes;
+        }
+
+        private static Sample take() {
+            com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+            long total = os.getTotalMemorySize();
+            long available = os.getFreeMemorySize();
+            // MemAvailable counts reclaimable page cache as available, unlike the MXBean's free memory
+            try {
+                for (String line : Files.readAllLines(Paths.get("/proc/meminfo"))) {
+                    if (line.startsWith("MemTotal:")) {
+                        total = kb(line) * 1024;
+                    } else if (line.startsWith("MemAvailable:")) {
+                        available = kb(line) * 1024;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Not Linux: keep the MXBean figures
+            }
+            return new Sample(total, total - available, ProcessMemory.descendantsBytes(), Math.max(0, os.getCpuLoad()));
+        }
+
+        private static long kb(String line) {
+            return Long.parseLong(line.replaceAll("[^0-9]", ""));
+        }
+    }
+
+    /**
+     * Semaphore whose number of permits can shrink below the permits currently held;
+     * acquirers then block until enough sessions have been released.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        private ResizableSemaphore() {
+            super(0, true);
+        }
+
+        private void resize(int delta) {
+            if (delta > 0) {
+                release(delta);
+            } else if (delta < 0) {
+                reducePermits(-delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce.config;
+
+import com.ecommerce.metrics.StepTimings;
+import com.ecommerce.pages.PageReadiness;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named snapshots of a browser session at funnel stages (e.g. "checkout-cart-24-MB01", "checkout-shipping-24-MB01").
+ * A checkpoint holds the page URL, cookies, localStorage and sessionStorage; restoring it puts another
+ * session on the same server-side cart in one navigation instead of replaying the UI steps.
+ * Checkpoints live for the run; those captured or restored by a failing test are dropped by CheckpointListener,
+ * and a test that consumes the server-side state (e.g. places the order) invalidates them itself.
+ */
+public class Checkpoints {
+
+    private static final String CAPTURE_SCRIPT =
+        "function dump(storage) {"
+        + "  var entries = {};"
+        + "  try { for (var i = 0; i < storage.length; i++) { var k = storage.key(i); entries[k] = storage.getItem(k); } } catch (e) {}"
+        + "  return entries;"
+        + "}"
+        + "return { local: dump(window.localStorage), session: dump(window.sessionStorage) };";
+
+    private static final String RESTORE_SCRIPT =
+        "function load(storage, entries) {"
+        + "  try { storage.clear(); for (var k in entries) { storage.setItem(k, entries[k]); } } catch (e) {}"
+        + "}"
+        + "load(window.localStorage, arguments[0]); load(window.sessionStorage, arguments[1]);";
+
+    private static final Map<String, Checkpoint> CHECKPOINTS = new ConcurrentHashMap<>();
+    // Checkpoints the test running on this thread captured or restored, dropped if it fails
+    private static final ThreadLocal<Set<String>> TOUCHED = ThreadLocal.withInitial(LinkedHashSet::new);
+
+    private Checkpoints() {
+    }
+
+    /**
+     * Snapshots the current page URL, cookies and web storage under the given stage name.
+     */
+    @SuppressWarnings("unchecked")
+    public static void capture(WebDriver driver, String stage) {
+        long start = System.nanoTime();
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        Checkpoint checkpoint = new Checkpoint(driver.getCurrentUrl(), driver.manage().getCookies(),
+            (Map<String, Object>) storage.get("local"), (Map<String, Object>) storage.get("session"));
+        CHECKPOINTS.put(stage, checkpoint);
+        TOUCHED.get().add(stage);
+        StepTimings.record("Checkpoints.capture", System.nanoTime() - start);
+    }
+
+    /**
+     * Puts the session back at the given stage. The session must already be on the storefront origin
+     * (BaseTest opens the base URL), since cookies and storage can only be written for the current document.
+     *
+     * @return false if no checkpoint exists for the stage, in which case the session is left untouched
+     */
+    public static boolean restore(WebDriver driver, String stage) {
+        Checkpoint checkpoint = CHECKPOINTS.get(stage);
+        if (checkpoint == null) {
+            return false;
+        }
+        long start = System.nanoTime();
+        TOUCHED.get().add(stage);
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : checkpoint.cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        ((JavascriptExecutor) driver).executeScript(RESTORE_SCRIPT, checkpoint.localStorage, checkpoint.sessionStorage);
+        driver.get(checkpoint.url);
+        PageReadiness.await(driver);
+        StepTimings.record("Checkpoints.restore", System.nanoTime() - start);
+        return true;
+    }
+
+    public static boolean exists(String stage) {
+        return CHECKPOINTS.containsKey(stage);
+    }
+
+    public static void invalidate(String stage) {
+        CHECKPOINTS.remove(stage);
+    }
+
+    /**
+     * Called when a test starts: forgets which checkpoints the previous test on this thread used.
+     */
+    public static void beginTest() {
+        TOUCHED.get().clear();
+    }
+
+    /**
+     * Called when a test fails: its checkpoints may hold the state that made it fail, so they are dropped.
+     *
+     * @return the invalidated stage names
+     */
+    public static List<String> invalidateTouched() {
+        Set<String> touched = TOUCHED.get();
+        List<String> stages = List.copyOf(touched);
+        stages.forEach(CHECKPOINTS::remove);
+        touched.clear();
+        return stages;
+    }
+
+    private static final class Checkpoint {
+        private final String url;
+        private final Set<Cookie> cookies;
+        private final Map<String, Object> localStorage;
+        private final Map<String, Object> sessionStorage;
+
+        private Checkpoint(String url, Set<Cookie> cookies, Map<String, Object> localStorage, Map<String, Object> sessionStorage) {
+            this.url = url;
+            this.cookies = Collections.unmodifiableSet(new LinkedHashSet<>(cookies));
+            this.localStorage = Map.copyOf(localStorage);
+            this.sessionStorage = Map.copyOf(sessionStorage);
+        }
+    }
+}
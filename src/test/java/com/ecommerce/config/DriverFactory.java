@@ -1,59 +1,94 @@
 package com.ecommerce.config;
 
+import com.ecommerce.metrics.CommandMetrics;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 
-import java.io.File;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 /**
  * Factory class for creating WebDriver instances.
  * Uses Selenium Manager (built into Selenium 4.6+) for automatic driver management.
  * Falls back to system-installed drivers if Selenium Manager cannot download drivers.
+ * Driver binaries and services are resolved and started once per JVM by {@link DriverServices}.
+ * Session creation is gated by {@link AdmissionControl}. With contextsPerBrowser > 1, Chrome/Edge sessions are isolated contexts of shared browsers ({@link SharedBrowsers}).
+ * Safe to call from several TestNG worker threads at once.
  */
 public class DriverFactory {
 
     private DriverFactory() {
     }
 
+    /**
+     * Starts a session once AdmissionControl admits it; quit sites hand it back with {@link AdmissionControl#released}.
+     */
     public static WebDriver createDriver() {
+        return createDriver(() -> false);
+    }
+
+    /**
+     * Same as {@link #createDriver()}, but gives up waiting for admission once {@code abandon} returns true.
+     *
+     * @return the new session, or null if the wait was abandoned
+     */
+    static WebDriver createDriver(BooleanSupplier abandon) {
+        if (!AdmissionControl.acquire(abandon)) {
+            return null;
+        }
         String browser = TestConfig.getBrowser().toLowerCase();
-        
-        // Set system property to use system chromedriver if Selenium Manager fails
-        // This is necessary as a fallback in CI environments with network restrictions
-        // where Selenium Manager cannot download the driver from the internet
-        if ("chrome".equals(browser) && System.getProperty("webdriver.chrome.driver") == null) {
-            String chromedriverPath = findSystemChromeDriver();
-            if (chromedriverPath != null) {
-                System.setProperty("webdriver.chrome.driver", chromedriverPath);
-            }
+        WebDriver driver;
+        try {
+            driver = startBrowser(browser);
+        } catch (RuntimeException e) {
+            AdmissionControl.failed();
+            throw e;
         }
-        
+        RequestFilter.apply(driver);
+        WebDriver session = TestConfig.isCommandMetricsEnabled() ? CommandMetrics.instrument(driver) : driver;
+        AdmissionControl.started(session);
+        return session;
+    }
+
+    private static WebDriver startBrowser(String browser) {
         switch (browser) {
             case "firefox":
                 FirefoxOptions ffOptions = new FirefoxOptions();
                 ffOptions.addArguments("--width=1400", "--height=1000");
+                ffOptions.setPageLoadStrategy(TestConfig.getPageLoadStrategy());
                 // Run headless in CI environment (no display)
                 if (System.getenv("CI") != null || System.getenv("DISPLAY") == null) {
                     ffOptions.addArguments("--headless");
                 }
-                return new FirefoxDriver(ffOptions);
+                RequestFilter.configure(ffOptions);
+                // geckodriver is one service per session: its start is part of the session
+                return timed(browser, () -> new FirefoxDriver(DriverServices.firefox(ffOptions), ffOptions));
             case "edge":
                 EdgeOptions edgeOptions = new EdgeOptions();
                 edgeOptions.addArguments("--window-size=1400,1000");
+                edgeOptions.setPageLoadStrategy(TestConfig.getPageLoadStrategy());
                 // Run headless in CI environment (no display)
                 if (System.getenv("CI") != null || System.getenv("DISPLAY") == null) {
                     edgeOptions.addArguments("--headless");
                 }
-                return new EdgeDriver(edgeOptions);
+                // The shared service is started (once) before the clock starts
+                EdgeDriverService edgeService = DriverServices.edge(edgeOptions);
+                if (TestConfig.getContextsPerBrowser() > 1) {
+                    return timed(browser, () -> SharedBrowsers.edge(edgeOptions));
+                }
+                return timed(browser, () -> new EdgeDriver(edgeService, edgeOptions));
             case "chrome":
             default:
                 ChromeOptions chromeOptions = new ChromeOptions();
                 chromeOptions.addArguments("--window-size=1400,1000");
+                chromeOptions.setPageLoadStrategy(TestConfig.getPageLoadStrategy());
                 chromeOptions.addArguments("--disable-blink-features=AutomationControlled");
                 // Run headless in CI environment (no display)
                 if (System.getenv("CI") != null || System.getenv("DISPLAY") == null) {
@@ -62,27 +97,22 @@ public class DriverFactory {
                 chromeOptions.addArguments("--no-sandbox");
                 chromeOptions.addArguments("--disable-dev-shm-usage");
                 chromeOptions.addArguments("--disable-gpu");
-                return new ChromeDriver(chromeOptions);
+                // The shared service is started (once) before the clock starts
+                ChromeDriverService chromeService = DriverServices.chrome(chromeOptions);
+                if (TestConfig.getContextsPerBrowser() > 1) {
+                    return timed(browser, () -> SharedBrowsers.chrome(chromeOptions));
+                }
+                return timed(browser, () -> new ChromeDriver(chromeService, chromeOptions));
         }
     }
-    
+
     /**
-     * Find system-installed chromedriver
+     * Opens a session and records how long it took (see DriverServices.recordSession).
      */
-    private static String findSystemChromeDriver() {
-        String[] possiblePaths = {
-            "/usr/bin/chromedriver",
-            "/usr/local/bin/chromedriver",
-            "/opt/chromedriver/chromedriver"
-        };
-        
-        for (String path : possiblePaths) {
-            File file = new File(path);
-            if (file.exists() && file.canExecute()) {
-                return path;
-            }
-        }
-        return null;
+    private static WebDriver timed(String browser, Supplier<WebDriver> session) {
+        long start = System.nanoTime();
+        WebDriver driver = session.get();
+        DriverServices.recordSession(browser, System.nanoTime() - start);
+        return driver;
     }
 }
-
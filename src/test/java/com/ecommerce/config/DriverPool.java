@@ -0,0 +1,174 @@
+package com.ecommerce.config;
+
+import com.ecommerce.load.TrafficRecorder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of reusable browser sessions.
+ * A test leases a driver, and on release the session is reset (storage, cookies, about:blank)
+ * and kept for the next test, which avoids paying browser cold start for every method.
+ * Sessions failing the health check or reaching the max-uses limit are quit and replaced.
+ */
+public class DriverPool {
+
+    private static final Semaphore PERMITS = new Semaphore(TestConfig.getDriverPoolMaxSessions(), true);
+    private static final ConcurrentLinkedDeque<PooledSession> IDLE = new ConcurrentLinkedDeque<>();
+    private static final Map<WebDriver, PooledSession> LEASED = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private static final AtomicInteger CREATED = new AtomicInteger();
+    private static final AtomicLong CREATE_NANOS = new AtomicLong();
+    private static final AtomicInteger REUSED = new AtomicInteger();
+    private static final AtomicInteger RECYCLED = new AtomicInteger();
+    private static final AtomicInteger EVICTED = new AtomicInteger();
+
+    private DriverPool() {
+    }
+
+    /**
+     * Leases a session, blocking while the pool is at capacity.
+     */
+    public static WebDriver lease() {
+        try {
+            PERMITS.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a pooled browser session", e);
+        }
+        try {
+            PooledSession session = null;
+            while (session == null) {
+                session = pollHealthy();
+                if (session != null) {
+                    REUSED.incrementAndGet();
+                    break;
+                }
+                long start = System.nanoTime();
+                // A session released while this one waits for admission is reused instead
+                WebDriver driver = DriverFactory.createDriver(() -> !IDLE.isEmpty());
+                if (driver != null) {
+                    session = new PooledSession(driver);
+                    CREATE_NANOS.addAndGet(System.nanoTime() - start);
+                    CREATED.incrementAndGet();
+                }
+            }
+            session.uses++;
+            LEASED.put(session.driver, session);
+            return session.driver;
+        } catch (RuntimeException e) {
+            PERMITS.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a leased session to the pool, or quits it if it is worn out or cannot be reset.
+     */
+    public static void release(WebDriver driver) {
+        PooledSession session = LEASED.remove(driver);
+        if (session == null) {
+            // Not a pooled session (or already released): just close it
+            quitQuietly(driver);
+            return;
+        }
+        try {
+            if (session.uses >= TestConfig.getDriverPoolMaxUses()) {
+                RECYCLED.incrementAndGet();
+                quitQuietly(driver);
+            } else if (reset(driver)) {
+                IDLE.offerFirst(session);
+            } else {
+                evict(session);
+            }
+        } finally {
+            PERMITS.release();
+        }
+    }
+
+    /**
+     * Quits every idle session and prints how much browser startup time pooling saved.
+     */
+    public static void shutdown() {
+        PooledSession session;
+        while ((session = IDLE.pollFirst()) != null) {
+            quitQuietly(session.driver);
+        }
+        int created = CREATED.get();
+        if (created == 0) {
+            return;
+        }
+        long avgCreateMillis = CREATE_NANOS.get() / created / 1_000_000;
+        System.out.println("DriverPool: " + created + " sessions started (avg " + avgCreateMillis + " ms), "
+            + REUSED.get() + " reused, " + RECYCLED.get() + " recycled, " + EVICTED.get() + " evicted, "
+            + "~" + (REUSED.get() * avgCreateMillis) + " ms startup time saved");
+    }
+
+    /**
+     * Clears cookies and web storage for the current origin, then parks the tab on about:blank.
+     */
+    private static boolean reset(WebDriver driver) {
+        NetworkTracker.reset(driver);
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.out.println("Pooled session could not be reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static PooledSession pollHealthy() {
+        PooledSession session = IDLE.pollFirst();
+        while (session != null && !isHealthy(session.driver)) {
+            evict(session);
+            session = IDLE.pollFirst();
+        }
+        return session;
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void evict(PooledSession session) {
+        EVICTED.incrementAndGet();
+        quitQuietly(session.driver);
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        NetworkTracker.forget(driver);
+        TrafficRecorder.forget(driver);
+        try {
+            driver.quit();
+        } catch (Exception ignored) {
+            // Session is already gone
+        } finally {
+            AdmissionControl.released(driver);
+        }
+    }
+
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
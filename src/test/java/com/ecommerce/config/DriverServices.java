@@ -0,0 +1,231 @@
+package com.ecommerce.config;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.net.PortProber;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Driver binaries and driver services shared by every session of the JVM.
+ * The driver binary (and browser binary reported by Selenium Manager) is resolved once per browser type.
+ * chromedriver and msedgedriver can host many sessions, so a single long-lived service is started for each
+ * and new sessions are opened against it; geckodriver only supports one session per process,
+ * so Firefox gets a fresh service per session but still skips binary resolution.
+ */
+public class DriverServices {
+
+    private static final Duration SERVICE_TIMEOUT = Duration.ofSeconds(20);
+
+    private static final Map<String, Binaries> BINARIES = new ConcurrentHashMap<>();
+    private static final Map<String, DriverService> SHARED = new ConcurrentHashMap<>();
+    private static final Map<String, Long> SERVICE_START_NANOS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> SESSION_COUNT = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> SESSION_NANOS = new ConcurrentHashMap<>();
+
+    static {
+        // Safety net for runs that do not go through the TestNG listener
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverServices::stopAll));
+    }
+
+    private DriverServices() {
+    }
+
+    static ChromeDriverService chrome(ChromeOptions options) {
+        Binaries binaries = resolve("chrome", options, ChromeDriverService::createDefaultService);
+        binaries.applyBrowserPath(options);
+        return (ChromeDriverService) SHARED.computeIfAbsent("chrome", key -> start(key, () -> {
+            int port = PortProber.findFreePort();
+            return new SharedChromeDriverService(binaries.driver, port);
+        }));
+    }
+
+    static EdgeDriverService edge(EdgeOptions options) {
+        Binaries binaries = resolve("edge", options, EdgeDriverService::createDefaultService);
+        binaries.applyBrowserPath(options);
+        return (EdgeDriverService) SHARED.computeIfAbsent("edge", key -> start(key, () -> {
+            int port = PortProber.findFreePort();
+            return new SharedEdgeDriverService(binaries.driver, port);
+        }));
+    }
+
+    static GeckoDriverService firefox(FirefoxOptions options) {
+        Binaries binaries = resolve("firefox", options, GeckoDriverService::createDefaultService);
+        if (binaries.browser != null) {
+            options.setBinary(binaries.browser);
+        }
+        return new GeckoDriverService.Builder()
+            .usingDriverExecutable(binaries.driver)
+            .usingAnyFreePort()
+            .build();
+    }
+
+    /**
+     * Records how long opening a browser session took, excluding the driver service start.
+     */
+    static void recordSession(String browser, long nanos) {
+        SESSION_COUNT.computeIfAbsent(browser, key -> new LongAdder()).increment();
+        SESSION_NANOS.computeIfAbsent(browser, key -> new LongAdder()).add(nanos);
+    }
+
+    /**
+     * Service start time per browser type, in milliseconds.
+     */
+    public static Map<String, Long> getServiceStartMillis() {
+        Map<String, Long> millis = new ConcurrentHashMap<>();
+        SERVICE_START_NANOS.forEach((browser, nanos) -> millis.put(browser, nanos / 1_000_000));
+        return millis;
+    }
+
+    /**
+     * Average session creation time per browser type, in milliseconds.
+     */
+    public static Map<String, Long> getAverageSessionMillis() {
+        Map<String, Long> millis = new ConcurrentHashMap<>();
+        SESSION_COUNT.forEach((browser, count) ->
+            millis.put(browser, SESSION_NANOS.get(browser).sum() / Math.max(1, count.sum()) / 1_000_000));
+        return millis;
+    }
+
+    /**
+     * Stops the shared services and prints service start time versus session creation time.
+     */
+    public static void shutdown() {
+        SESSION_COUNT.forEach((browser, count) -> System.out.println("DriverServices: " + browser
+            + " service started in " + getServiceStartMillis().getOrDefault(browser, 0L) + " ms, "
+            + count.sum() + " sessions created (avg " + getAverageSessionMillis().get(browser) + " ms)"));
+        stopAll();
+    }
+
+    private static void stopAll() {
+        SHARED.values().forEach(service -> ((SharedService) service).shutdown());
+        SHARED.clear();
+    }
+
+    private static DriverService start(String browser, ServiceSupplier supplier) {
+        long start = System.nanoTime();
+        try {
+            DriverService service = supplier.get();
+            service.start();
+            SERVICE_START_NANOS.put(browser, System.nanoTime() - start);
+            return service;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to start " + browser + " driver service", e);
+        }
+    }
+
+    private static Binaries resolve(String browser, Capabilities options, Supplier<DriverService> defaultService) {
+        return BINARIES.computeIfAbsent(browser, key -> {
+            DriverService service = defaultService.get();
+            // An explicit -Dwebdriver.<browser>.driver always wins
+            String configured = System.getProperty(service.getDriverProperty());
+            if (configured != null) {
+                return new Binaries(new File(configured), null);
+            }
+            // Fallback for CI environments with network restrictions
+            // where Selenium Manager cannot download the driver from the internet
+            if ("chrome".equals(key)) {
+                File chromedriver = findSystemChromeDriver();
+                if (chromedriver != null) {
+                    return new Binaries(chromedriver, null);
+                }
+            }
+            DriverFinder finder = new DriverFinder(service, options);
+            return new Binaries(new File(finder.getDriverPath()), finder.hasBrowserPath() ? finder.getBrowserPath() : null);
+        });
+    }
+
+    /**
+     * Find system-installed chromedriver
+     */
+    private static File findSystemChromeDriver() {
+        String[] possiblePaths = {
+            "/usr/bin/chromedriver",
+            "/usr/local/bin/chromedriver",
+            "/opt/chromedriver/chromedriver"
+        };
+
+        for (String path : possiblePaths) {
+            File file = new File(path);
+            if (file.exists() && file.canExecute()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private interface ServiceSupplier {
+        DriverService get() throws IOException;
+    }
+
+    private interface SharedService {
+        void shutdown();
+    }
+
+    private static final class Binaries {
+        private final File driver;
+        private final String browser;
+
+        private Binaries(File driver, String browser) {
+            this.driver = driver;
+            this.browser = browser;
+        }
+
+        private void applyBrowserPath(ChromiumOptions<?> options) {
+            if (browser != null) {
+                options.setBinary(browser);
+            }
+        }
+    }
+
+    /**
+     * Quitting a session normally stops its service; a shared service ignores that
+     * and is only stopped by {@link DriverServices#shutdown()}.
+     */
+    private static final class SharedChromeDriverService extends ChromeDriverService implements SharedService {
+        private SharedChromeDriverService(File executable, int port) throws IOException {
+            super(executable, port, SERVICE_TIMEOUT, List.of("--port=" + port), Map.of());
+        }
+
+        @Override
+        public void stop() {
+            // Shared across sessions
+        }
+
+        @Override
+        public void shutdown() {
+            super.stop();
+        }
+    }
+
+    private static final class SharedEdgeDriverService extends EdgeDriverService implements SharedService {
+        private SharedEdgeDriverService(File executable, int port) throws IOException {
+            super(executable, port, SERVICE_TIMEOUT, List.of("--port=" + port), Map.of());
+        }
+
+        @Override
+        public void stop() {
+            // Shared across sessions
+        }
+
+        @Override
+        public void shutdown() {
+            super.stop();
+        }
+    }
+}
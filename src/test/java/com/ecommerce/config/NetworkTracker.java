@@ -0,0 +1,276 @@
+package com.ecommerce.config;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Counts in-flight requests of a browser session from CDP Network events (Chrome/Edge),
+ * so page objects can block until the network is idle or a specific request completed
+ * instead of polling the DOM. Waiting threads are woken by the events themselves.
+ * Sessions without CDP (Firefox) fall back to the in-page Resource Timing buffer.
+ */
+public class NetworkTracker {
+
+    private static final Map<WebDriver, NetworkTracker> TRACKERS = Collections.synchronizedMap(new IdentityHashMap<>());
+    private static final int RECENT_CAPACITY = 512;
+    private static final int RESOURCE_BUFFER_SIZE = 2000;
+    private static final Set<String> CDP_BROWSERS = Set.of("chrome", "MicrosoftEdge", "msedge");
+
+    private final WebDriver driver;
+    private final boolean cdp;
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+    private long lastActivityNanos = System.nanoTime();
+    private long completed;
+    private final String[] recentUrls = new String[RECENT_CAPACITY];
+
+    private NetworkTracker(WebDriver driver) {
+        this.driver = driver;
+        this.cdp = attach(driver);
+    }
+
+    /**
+     * Tracker of the given session, attached on first use.
+     */
+    public static NetworkTracker of(WebDriver driver) {
+        synchronized (TRACKERS) {
+            return TRACKERS.computeIfAbsent(driver, NetworkTracker::new);
+        }
+    }
+
+    /**
+     * Drops the tracker of a session that is being quit.
+     */
+    public static void forget(WebDriver driver) {
+        TRACKERS.remove(driver);
+    }
+
+    /**
+     * Forgets requests still marked in flight, e.g. when a pooled session is reset between tests.
+     */
+    public static void reset(WebDriver driver) {
+        NetworkTracker tracker = TRACKERS.get(driver);
+        if (tracker != null) {
+            synchronized (tracker) {
+                tracker.inFlight.clear();
+                tracker.notifyAll();
+            }
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Whether requests are seen through CDP; otherwise the Resource Timing fallback may miss some of them.
+     */
+    public boolean isCdp() {
+        return cdp;
+    }
+
+    /**
+     * Blocks until no request has been in flight for {@code quiet}, or the timeout elapses.
+     *
+     * @return true if the network went idle
+     */
+    public boolean awaitIdle(Duration quiet, Duration timeout) {
+        if (!cdp) {
+            return awaitResourcesSettled(quiet, timeout);
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this) {
+            while (true) {
+                long now = System.nanoTime();
+                long quietLeft = lastActivityNanos + quiet.toNanos() - now;
+                if (inFlight.isEmpty() && quietLeft <= 0) {
+                    return true;
+                }
+                long timeLeft = deadline - now;
+                if (timeLeft <= 0) {
+                    return false;
+                }
+                if (!waitNanos(inFlight.isEmpty() ? Math.min(quietLeft, timeLeft) : timeLeft)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts watching for a request whose URL matches {@code urlPattern}; create it before
+     * triggering the action so a fast response is not missed, then {@link Expectation#await(Duration)}.
+     */
+    public Expectation expect(String urlPattern) {
+        if (!cdp) {
+            // Resource Timing entries already in the buffer were issued before the expectation
+            return new Expectation(Pattern.compile(urlPattern), resourceEntryCount());
+        }
+        synchronized (this) {
+            return new Expectation(Pattern.compile(urlPattern), completed);
+        }
+    }
+
+    /**
+     * The CDP connection of a Chrome or Edge session, or null for any other browser. FirefoxDriver implements
+     * HasDevTools as well but its session only speaks BiDi, so the browser name decides, not the interface.
+     */
+    public static DevTools devTools(WebDriver driver) {
+        if (!(driver instanceof HasDevTools) || !(driver instanceof HasCapabilities)
+            || !CDP_BROWSERS.contains(((HasCapabilities) driver).getCapabilities().getBrowserName())) {
+            return null;
+        }
+        return ((HasDevTools) driver).getDevTools();
+    }
+
+    private boolean attach(WebDriver webDriver) {
+        try {
+            DevTools devTools = devTools(webDriver);
+            if (devTools == null) {
+                return false;
+            }
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.addListener(cdpEvent("Network.requestWillBeSent"), params -> {
+                Object request = params.get("request");
+                String url = request instanceof Map ? String.valueOf(((Map<?, ?>) request).get("url")) : "";
+                if (!url.startsWith("data:")) {
+                    onStarted(String.valueOf(params.get("requestId")), url);
+                }
+            });
+            devTools.addListener(cdpEvent("Network.loadingFinished"), params -> onFinished(String.valueOf(params.get("requestId"))));
+            devTools.addListener(cdpEvent("Network.loadingFailed"), params -> onFinished(String.valueOf(params.get("requestId"))));
+            return true;
+        } catch (Exception e) {
+            System.out.println("CDP network tracking unavailable, falling back to Resource Timing: " + e.getMessage());
+            return false;
+        }
+    }
+
+    static Event<Map<String, Object>> cdpEvent(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private synchronized void onStarted(String requestId, String url) {
+        inFlight.put(requestId, url);
+        lastActivityNanos = System.nanoTime();
+        notifyAll();
+    }
+
+    private synchronized void onFinished(String requestId) {
+        String url = inFlight.remove(requestId);
+        if (url != null) {
+            recentUrls[(int) (completed++ % RECENT_CAPACITY)] = url;
+        }
+        lastActivityNanos = System.nanoTime();
+        notifyAll();
+    }
+
+    private boolean waitNanos(long nanos) {
+        try {
+            wait(Math.max(1, nanos / 1_000_000));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private long resourceEntryCount() {
+        try {
+            // The buffer stops recording at 250 entries by default, which a storefront page can reach on its own
+            Object count = ((JavascriptExecutor) driver).executeScript(
+                "performance.setResourceTimingBufferSize(arguments[0]);"
+                + "return performance.getEntriesByType('resource').length;", RESOURCE_BUFFER_SIZE);
+            return count instanceof Number ? ((Number) count).longValue() : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private boolean awaitResourcesSettled(Duration quiet, Duration timeout) {
+        try {
+            new WebDriverWait(driver, timeout, Duration.ofMillis(100)).until(webDriver -> {
+                Object idleMillis = ((JavascriptExecutor) webDriver).executeScript(
+                    "var entries = performance.getEntriesByType('resource');"
+                    + "var last = entries.length ? entries[entries.length - 1].responseEnd : 0;"
+                    + "return performance.now() - last;");
+                return idleMillis instanceof Number && ((Number) idleMillis).longValue() >= quiet.toMillis();
+            });
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * A pending wait for a request matching a URL pattern.
+     */
+    public final class Expectation {
+        private final Pattern pattern;
+        private final long fromSequence;
+
+        private Expectation(Pattern pattern, long fromSequence) {
+            this.pattern = pattern;
+            this.fromSequence = fromSequence;
+        }
+
+        /**
+         * Blocks until a matching request completed since the expectation was created.
+         * Without CDP, only Resource Timing entries added since then count; a new document starts a new buffer.
+         *
+         * @return true if it completed before the timeout
+         */
+        public boolean await(Duration timeout) {
+            if (!cdp) {
+                return awaitResourceEntry(timeout);
+            }
+            long deadline = System.nanoTime() + timeout.toNanos();
+            synchronized (NetworkTracker.this) {
+                long checked = fromSequence;
+                while (true) {
+                    // Only the last RECENT_CAPACITY completions are kept
+                    checked = Math.max(checked, completed - RECENT_CAPACITY);
+                    for (; checked < completed; checked++) {
+                        if (pattern.matcher(recentUrls[(int) (checked % RECENT_CAPACITY)]).find()) {
+                            return true;
+                        }
+                    }
+                    long timeLeft = deadline - System.nanoTime();
+                    if (timeLeft <= 0 || !waitNanos(timeLeft)) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        private boolean awaitResourceEntry(Duration timeout) {
+            try {
+                new WebDriverWait(driver, timeout, Duration.ofMillis(100)).until(webDriver -> ((JavascriptExecutor) webDriver).executeScript(
+                    "var re = new RegExp(arguments[0]), entries = performance.getEntriesByType('resource');"
+                    + "for (var i = arguments[1] <= entries.length ? arguments[1] : 0; i < entries.length; i++) {"
+                    + "  if (re.test(entries[i].name) && entries[i].responseEnd > 0) return true;"
+                    + "}"
+                    + "return false;",
+                    pattern.pattern(), fromSequence));
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+}
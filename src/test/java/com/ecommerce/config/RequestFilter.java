@@ -0,0 +1,170 @@
+package com.ecommerce.config;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.AddInterceptParameters;
+import org.openqa.selenium.bidi.network.ContinueRequestParameters;
+import org.openqa.selenium.bidi.network.InterceptPhase;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps images, web fonts, trackers and ads that no assertion depends on out of the browser.
+ * Chrome/Edge: URL patterns go to Network.setBlockedURLs (dropped before any connection is made)
+ * and resource types are intercepted with the Fetch domain at the response stage, failed once the
+ * headers arrive, so the body is never downloaded and its Content-Length counts as bytes saved.
+ * Firefox: resource types are disabled through preferences and URL patterns through a BiDi intercept.
+ */
+public class RequestFilter {
+
+    private static final Map<String, LongAdder> BLOCKED = new ConcurrentHashMap<>();
+    private static final LongAdder BYTES_SAVED = new LongAdder();
+
+    private RequestFilter() {
+    }
+
+    /**
+     * Options-level part of the filter, applied before the Firefox session starts.
+     */
+    static void configure(FirefoxOptions options) {
+        if (!TestConfig.isRequestFilterEnabled()) {
+            return;
+        }
+        List<String> types = TestConfig.getBlockedResourceTypes();
+        if (types.contains("Image")) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (types.contains("Font")) {
+            options.addPreference("browser.display.use_document_fonts", 0);
+        }
+        if (types.contains("Media")) {
+            options.addPreference("media.autoplay.default", 5);
+        }
+        if (!TestConfig.getBlockedUrlPatterns().isEmpty()) {
+            // The URL blocklist needs a BiDi connection
+            options.setCapability("webSocketUrl", true);
+        }
+    }
+
+    /**
+     * Session-level part of the filter, applied right after the session starts.
+     */
+    static void apply(WebDriver driver) {
+        if (!TestConfig.isRequestFilterEnabled()) {
+            return;
+        }
+        try {
+            DevTools devTools = NetworkTracker.devTools(driver);
+            if (devTools != null) {
+                applyCdp(devTools);
+            } else if (!TestConfig.getBlockedUrlPatterns().isEmpty()) {
+                applyBiDi(driver);
+            }
+        } catch (Exception e) {
+            System.out.println("Request filtering unavailable for this session: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Blocked request counts per reason since the start of the run.
+     */
+    public static Map<String, Long> getBlockedCounts() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        BLOCKED.forEach((reason, count) -> counts.put(reason, count.sum()));
+        return counts;
+    }
+
+    public static long getBytesSaved() {
+        return BYTES_SAVED.sum();
+    }
+
+    /**
+     * Prints the per-run blocking statistics.
+     */
+    public static void report() {
+        if (BLOCKED.isEmpty()) {
+            return;
+        }
+        System.out.println("RequestFilter: blocked " + getBlockedCounts() + ", "
+            + (getBytesSaved() / 1024) + " KB of response bodies not downloaded");
+    }
+
+    private static void applyCdp(DevTools devTools) {
+        devTools.createSessionIfThereIsNotOne();
+        List<String> urlPatterns = TestConfig.getBlockedUrlPatterns();
+        if (!urlPatterns.isEmpty()) {
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", urlPatterns)));
+            devTools.addListener(NetworkTracker.cdpEvent("Network.loadingFailed"), params -> {
+                if (params.get("blockedReason") != null) {
+                    count("url-pattern");
+                }
+            });
+        }
+        List<String> types = TestConfig.getBlockedResourceTypes();
+        if (!types.isEmpty()) {
+            List<Map<String, Object>> patterns = new ArrayList<>();
+            for (String type : types) {
+                patterns.add(Map.of("resourceType", type, "requestStage", "Response"));
+            }
+            devTools.addListener(NetworkTracker.cdpEvent("Fetch.requestPaused"), params -> {
+                count(String.valueOf(params.get("resourceType")));
+                BYTES_SAVED.add(contentLength(params.get("responseHeaders")));
+                devTools.send(new Command<>("Fetch.failRequest",
+                    Map.of("requestId", params.get("requestId"), "errorReason", "BlockedByClient")));
+            });
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+        }
+    }
+
+    private static void applyBiDi(WebDriver driver) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String glob : TestConfig.getBlockedUrlPatterns()) {
+            patterns.add(Pattern.compile(glob.replace(".", "\\.").replace("?", ".").replace("*", ".*")));
+        }
+        Network network = new Network(driver);
+        network.addIntercept(new AddInterceptParameters(InterceptPhase.BEFORE_REQUEST_SENT));
+        network.onBeforeRequestSent(event -> {
+            if (!event.isBlocked()) {
+                return;
+            }
+            String url = event.getRequest().getUrl();
+            String requestId = event.getRequest().getRequestId();
+            if (patterns.stream().anyMatch(pattern -> pattern.matcher(url).matches())) {
+                count("url-pattern");
+                network.failRequest(requestId);
+            } else {
+                network.continueRequest(new ContinueRequestParameters(requestId));
+            }
+        });
+    }
+
+    private static long contentLength(Object headers) {
+        if (!(headers instanceof List)) {
+            return 0;
+        }
+        for (Object header : (List<?>) headers) {
+            Map<?, ?> entry = (Map<?, ?>) header;
+            if ("content-length".equalsIgnoreCase(String.valueOf(entry.get("name")))) {
+                try {
+                    return Long.parseLong(String.valueOf(entry.get("value")).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static void count(String reason) {
+        BLOCKED.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecommerce.config;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs several isolated sessions inside one Chrome/Edge process instead of one browser per session.
+ * A host browser is launched normally; each session is a further chromedriver session attached to it through
+ * its debugger address, working in a tab of its own CDP browser context (separate cookies, storage and cache,
+ * like an incognito profile). Up to contextsPerBrowser sessions share a host before another one is launched,
+ * so the browser, GPU and network processes are paid once per host rather than once per test.
+ */
+public class SharedBrowsers {
+
+    private static final List<Host> HOSTS = new ArrayList<>();
+    private static final Map<WebDriver, Context> CONTEXTS = Collections.synchronizedMap(new IdentityHashMap<>());
+    private static final AtomicInteger OPENED = new AtomicInteger();
+
+    private SharedBrowsers() {
+    }
+
+    static WebDriver chrome(ChromeOptions options) {
+        Host host = reserveHost("chrome", () -> new ChromeDriver(DriverServices.chrome(options), options));
+        ChromeOptions attach = new ChromeOptions();
+        attach.setExperimentalOption("debuggerAddress", host.debuggerAddress);
+        attach.setPageLoadStrategy(TestConfig.getPageLoadStrategy());
+        return openContext(host, () -> new ContextChromeDriver(DriverServices.chrome(attach), attach));
+    }
+
+    static WebDriver edge(EdgeOptions options) {
+        Host host = reserveHost("edge", () -> new EdgeDriver(DriverServices.edge(options), options));
+        EdgeOptions attach = new EdgeOptions();
+        attach.setExperimentalOption("debuggerAddress", host.debuggerAddress);
+        attach.setPageLoadStrategy(TestConfig.getPageLoadStrategy());
+        return openContext(host, () -> new ContextEdgeDriver(DriverServices.edge(attach), attach));
+    }
+
+    /**
+     * Quits the host browsers; sessions still attached to them end with them.
+     */
+    public static void shutdown() {
+        List<Host> hosts;
+        synchronized (HOSTS) {
+            hosts = new ArrayList<>(HOSTS);
+            HOSTS.clear();
+        }
+        if (!hosts.isEmpty()) {
+            System.out.println("SharedBrowsers: " + OPENED.get() + " sessions opened in " + hosts.size()
+                + " browser processes (" + TestConfig.getContextsPerBrowser() + " contexts per browser)");
+        }
+        for (Host host : hosts) {
+            try {
+                host.driver.quit();
+            } catch (Exception ignored) {
+                // Browser is already gone
+            }
+        }
+    }
+
+    /**
+     * A host with a free context slot, launching a new browser when every host is full.
+     */
+    private static Host reserveHost(String browser, Launcher launcher) {
+        synchronized (HOSTS) {
+            for (Host host : HOSTS) {
+                if (host.browser.equals(browser) && host.contexts < TestConfig.getContextsPerBrowser()) {
+                    host.contexts++;
+                    return host;
+                }
+            }
+            // Launched under the lock so concurrent tests fill one host instead of each starting their own
+            ChromiumDriver driver = launcher.launch();
+            Host host = new Host(browser, driver, debuggerAddress(driver));
+            host.contexts++;
+            HOSTS.add(host);
+            return host;
+        }
+    }
+
+    private static WebDriver openContext(Host host, Launcher launcher) {
+        ChromiumDriver driver;
+        try {
+            driver = launcher.launch();
+        } catch (RuntimeException e) {
+            release(host);
+            throw e;
+        }
+        try {
+            DevTools devTools = driver.getDevTools();
+            // Sent before any CDP session exists, so they go to the browser target
+            Map<String, Object> created = devTools.send(new Command<>("Target.createBrowserContext",
+                Map.of("disposeOnDetach", true), input -> input.read(Json.MAP_TYPE)));
+            String browserContextId = String.valueOf(created.get("browserContextId"));
+            Map<String, Object> target = devTools.send(new Command<>("Target.createTarget",
+                Map.of("url", "about:blank", "browserContextId", browserContextId), input -> input.read(Json.MAP_TYPE)));
+            String targetId = String.valueOf(target.get("targetId"));
+            String handle = driver.getWindowHandles().stream()
+                .filter(h -> h.equals(targetId) || h.endsWith(targetId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("New browser context tab " + targetId + " not visible to the session"));
+            driver.switchTo().window(handle);
+            // Pins the CDP session of later users (NetworkTracker, RequestFilter, ...) to this tab
+            devTools.createSessionIfThereIsNotOne(handle);
+            CONTEXTS.put(driver, new Context(host, browserContextId));
+            OPENED.incrementAndGet();
+            return driver;
+        } catch (RuntimeException e) {
+            quitQuietly(driver);
+            throw e;
+        }
+    }
+
+    private static void closeContext(ChromiumDriver driver) {
+        Context context = CONTEXTS.remove(driver);
+        if (context == null) {
+            return;
+        }
+        try {
+            driver.getDevTools().send(new Command<>("Target.disposeBrowserContext",
+                Map.of("browserContextId", context.browserContextId)));
+        } catch (Exception ignored) {
+            // Disposed anyway when the session's CDP connection closes
+        }
+        release(context.host);
+    }
+
+    private static void release(Host host) {
+        synchronized (HOSTS) {
+            host.contexts--;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String debuggerAddress(ChromiumDriver driver) {
+        for (String capability : List.of("goog:chromeOptions", "ms:edgeOptions")) {
+            Object options = driver.getCapabilities().getCapability(capability);
+            if (options instanceof Map && ((Map<String, Object>) options).get("debuggerAddress") != null) {
+                return String.valueOf(((Map<String, Object>) options).get("debuggerAddress"));
+            }
+        }
+        throw new IllegalStateException("Browser session does not report a debugger address");
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception ignored) {
+            // Session is already gone
+        }
+    }
+
+    private interface Launcher {
+        ChromiumDriver launch();
+    }
+
+    private static final class Host {
+        private final String browser;
+        private final ChromiumDriver driver;
+        private final String debuggerAddress;
+        private int contexts;
+
+        private Host(String browser, ChromiumDriver driver, String debuggerAddress) {
+            this.browser = browser;
+            this.driver = driver;
+            this.debuggerAddress = debuggerAddress;
+        }
+    }
+
+    private static final class Context {
+        private final Host host;
+        private final String browserContextId;
+
+        private Context(Host host, String browserContextId) {
+            this.host = host;
+            this.browserContextId = browserContextId;
+        }
+    }
+
+    /**
+     * Session attached to a shared browser: quitting it disposes its context instead of the browser.
+     */
+    private static final class ContextChromeDriver extends ChromeDriver {
+        private ContextChromeDriver(ChromeDriverService service, ChromeOptions options) {
+            super(service, options);
+        }
+
+        @Override
+        public void quit() {
+            closeContext(this);
+            super.quit();
+        }
+    }
+
+    private static final class ContextEdgeDriver extends EdgeDriver {
+        private ContextEdgeDriver(EdgeDriverService service, EdgeOptions options) {
+            super(service, options);
+        }
+
+        @Override
+        public void quit() {
+            closeContext(this);
+            super.quit();
+        }
+    }
+}
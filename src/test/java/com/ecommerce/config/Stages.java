@@ -0,0 +1,146 @@
+package com.ecommerce.config;
+
+import com.ecommerce.metrics.StepTimings;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits a test into named page-object stages so a retry can resume where the failure happened.
+ * Each completed stage may capture a checkpoint (see Checkpoints); when StageRetryAnalyzer retries the test,
+ * the stages up to the last checkpoint are skipped, the checkpoint is restored into the new session and
+ * only the remaining stages run again. Retry time is accounted separately from first attempts.
+ */
+public class Stages {
+
+    private static final Map<String, Progress> PROGRESS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> CURRENT_IS_RETRY = new ThreadLocal<>();
+
+    private static final LongAdder FIRST_ATTEMPT_MILLIS = new LongAdder();
+    private static final LongAdder RETRY_MILLIS = new LongAdder();
+    private static final AtomicInteger RETRIES = new AtomicInteger();
+    private static final AtomicInteger STAGES_SKIPPED = new AtomicInteger();
+
+    private Stages() {
+    }
+
+    /**
+     * Runs one stage of the current test, or skips it if an earlier attempt completed it and a retry
+     * resumes from a later checkpoint.
+     *
+     * @param checkpoint checkpoint to capture once the stage succeeds, or null for none
+     */
+    public static void run(WebDriver driver, String stage, String checkpoint, Runnable body) {
+        String test = CURRENT_TEST.get();
+        Progress progress = test == null ? null : PROGRESS.computeIfAbsent(test, key -> new Progress());
+        if (progress == null) {
+            body.run();
+            return;
+        }
+        if (progress.completed.contains(stage)) {
+            STAGES_SKIPPED.incrementAndGet();
+            return;
+        }
+        if (progress.resumeFrom != null) {
+            String resumeFrom = progress.resumeFrom;
+            progress.resumeFrom = null;
+            if (!Checkpoints.restore(driver, resumeFrom)) {
+                throw new IllegalStateException("Checkpoint '" + resumeFrom + "' is gone, cannot resume " + test + " at " + stage);
+            }
+        }
+        String timing = (progress.retries > 0 ? "retry " : "stage ") + test + "." + stage;
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } catch (RuntimeException | Error e) {
+            progress.failedStage = stage;
+            throw e;
+        } finally {
+            StepTimings.record(timing, System.nanoTime() - start);
+        }
+        progress.completed.add(stage);
+        if (checkpoint != null) {
+            Checkpoints.capture(driver, checkpoint);
+            progress.lastCheckpoint = checkpoint;
+            progress.completedAtCheckpoint = progress.completed.size();
+        }
+    }
+
+    /**
+     * Marks the test about to run on this thread, identified as "Class.method" (plus its parameters, if any).
+     */
+    public static void beginTest(String test) {
+        CURRENT_TEST.set(test);
+        Progress progress = PROGRESS.get(test);
+        CURRENT_IS_RETRY.set(progress != null && progress.retries > 0);
+    }
+
+    /**
+     * Records the duration of an attempt; once the test is finished for good its progress is dropped.
+     */
+    public static void endTest(String test, long durationMillis, boolean finished) {
+        CURRENT_TEST.remove();
+        boolean retry = Boolean.TRUE.equals(CURRENT_IS_RETRY.get());
+        CURRENT_IS_RETRY.remove();
+        if (finished) {
+            PROGRESS.remove(test);
+        }
+        if (retry) {
+            RETRY_MILLIS.add(durationMillis);
+        } else {
+            FIRST_ATTEMPT_MILLIS.add(durationMillis);
+        }
+    }
+
+    /**
+     * Prepares a retry of the failed stage.
+     *
+     * @return false if the test did not fail inside a stage or is out of retries
+     */
+    public static boolean prepareRetry(String test, int maxRetries) {
+        Progress progress = PROGRESS.get(test);
+        if (progress == null || progress.failedStage == null || progress.retries >= maxRetries) {
+            return false;
+        }
+        // Stages after the last checkpoint left no restorable state and run again
+        if (progress.lastCheckpoint != null && Checkpoints.exists(progress.lastCheckpoint)) {
+            progress.completed.subList(progress.completedAtCheckpoint, progress.completed.size()).clear();
+            progress.resumeFrom = progress.lastCheckpoint;
+        } else {
+            progress.completed.clear();
+            progress.resumeFrom = null;
+        }
+        System.out.println("Retrying " + test + " from stage '" + progress.failedStage + "'"
+            + (progress.resumeFrom != null ? " (checkpoint '" + progress.resumeFrom + "')" : " (from the start)"));
+        progress.failedStage = null;
+        progress.retries++;
+        RETRIES.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Prints how much time went into retries compared to first attempts.
+     */
+    public static void printSummary() {
+        if (RETRIES.get() == 0) {
+            return;
+        }
+        System.out.println("Stages: " + RETRIES.get() + " retries, " + STAGES_SKIPPED.get() + " stages resumed from checkpoints, "
+            + RETRY_MILLIS.sum() + " ms spent retrying vs " + FIRST_ATTEMPT_MILLIS.sum() + " ms in first attempts");
+    }
+
+    private static final class Progress {
+        private final List<String> completed = new ArrayList<>();
+        private String lastCheckpoint;
+        private int completedAtCheckpoint;
+        private String failedStage;
+        private String resumeFrom;
+        private int retries;
+    }
+}
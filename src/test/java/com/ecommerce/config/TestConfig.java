@@ -1,8 +1,15 @@
 package com.ecommerce.config;
 
+import org.openqa.selenium.PageLoadStrategy;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 public class TestConfig {
     private static final Properties PROPS = new Properties();
@@ -28,12 +35,491 @@ public class TestConfig {
         return System.getProperty("browser", PROPS.getProperty("browser", "chrome"));
     }
 
+    /**
+     * Implicit wait applied to new sessions; 0 (the default) leaves all waiting to AdaptiveWait.
+     */
     public static int getImplicitWaitSeconds() {
-        return Integer.parseInt(System.getProperty("implicitWaitSeconds", PROPS.getProperty("implicitWaitSeconds", "5")));
+        return Integer.parseInt(System.getProperty("implicitWaitSeconds", PROPS.getProperty("implicitWaitSeconds", "0")));
     }
 
     public static int getExplicitWaitSeconds() {
         return Integer.parseInt(System.getProperty("explicitWaitSeconds", PROPS.getProperty("explicitWaitSeconds", "15")));
     }
-}
 
+    /**
+     * Lower bound of a learned wait timeout, so a fast condition still gets some slack.
+     */
+    public static long getAdaptiveWaitMinMillis() {
+        return Long.parseLong(System.getProperty("adaptiveWaitMinMillis", PROPS.getProperty("adaptiveWaitMinMillis", "2000")));
+    }
+
+    /**
+     * Learned wait timeout as a multiple of the call site's p95 completion time.
+     */
+    public static long getAdaptiveWaitMultiplier() {
+        return Long.parseLong(System.getProperty("adaptiveWaitMultiplier", PROPS.getProperty("adaptiveWaitMultiplier", "4")));
+    }
+
+    /**
+     * File where AdaptiveWait keeps the learned p95 per call site between runs.
+     */
+    public static String getWaitHistoryFile() {
+        return System.getProperty("waitHistoryFile", PROPS.getProperty("waitHistoryFile", "target/wait-history.properties"));
+    }
+
+    /**
+     * TestNG parallel mode applied to the suite: none, methods, classes or instances.
+     */
+    public static String getParallelMode() {
+        return System.getProperty("parallelMode", PROPS.getProperty("parallelMode", "none"));
+    }
+
+    /**
+     * Number of TestNG worker threads; 0 or less means one per available processor.
+     */
+    public static int getParallelThreads() {
+        int threads = Integer.parseInt(System.getProperty("parallelThreads", PROPS.getProperty("parallelThreads", "0")));
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Whether BaseTest leases browsers from DriverPool instead of launching one per test.
+     */
+    public static boolean isDriverPoolEnabled() {
+        return Boolean.parseBoolean(System.getProperty("driverPoolEnabled", PROPS.getProperty("driverPoolEnabled", "true")));
+    }
+
+    /**
+     * Upper bound of live pooled sessions; defaults to the parallel thread count.
+     */
+    public static int getDriverPoolMaxSessions() {
+        return Integer.parseInt(System.getProperty("driverPoolMaxSessions", PROPS.getProperty("driverPoolMaxSessions", String.valueOf(getParallelThreads()))));
+    }
+
+    /**
+     * Number of leases after which a pooled session is quit and replaced.
+     */
+    public static int getDriverPoolMaxUses() {
+        return Integer.parseInt(System.getProperty("driverPoolMaxUses", PROPS.getProperty("driverPoolMaxUses", "20")));
+    }
+
+    /**
+     * Page load strategy for new sessions: normal, eager (return at DOMContentLoaded) or none.
+     */
+    public static PageLoadStrategy getPageLoadStrategy() {
+        return PageLoadStrategy.fromString(System.getProperty("pageLoadStrategy", PROPS.getProperty("pageLoadStrategy", "eager")).toLowerCase());
+    }
+
+    /**
+     * How long the page must stay free of DOM changes and network activity to count as ready.
+     */
+    public static long getReadinessQuietMillis() {
+        return Long.parseLong(System.getProperty("readinessQuietMillis", PROPS.getProperty("readinessQuietMillis", "300")));
+    }
+
+    /**
+     * Whether DriverFactory installs the request blocklist and resource-type filter on new sessions.
+     */
+    public static boolean isRequestFilterEnabled() {
+        return Boolean.parseBoolean(System.getProperty("requestFilterEnabled", PROPS.getProperty("requestFilterEnabled", "true")));
+    }
+
+    /**
+     * URL patterns to block, CDP wildcard syntax (e.g. *google-analytics.com*), comma-separated.
+     */
+    public static List<String> getBlockedUrlPatterns() {
+        return getList("blockedUrlPatterns");
+    }
+
+    /**
+     * CDP resource types to drop (e.g. Image, Font, Media), comma-separated.
+     */
+    public static List<String> getBlockedResourceTypes() {
+        return getList("blockedResourceTypes");
+    }
+
+    /**
+     * Whether new drivers are wrapped with the command latency recorder (CommandMetrics).
+     */
+    public static boolean isCommandMetricsEnabled() {
+        return Boolean.parseBoolean(System.getProperty("commandMetricsEnabled", PROPS.getProperty("commandMetricsEnabled", "true")));
+    }
+
+    public static String getCommandMetricsFile() {
+        return System.getProperty("commandMetricsFile", PROPS.getProperty("commandMetricsFile", "target/command-metrics.json"));
+    }
+
+    /**
+     * Consent cookies seeded before the first navigation, as comma-separated name=value pairs.
+     */
+    public static Map<String, String> getConsentCookies() {
+        return getPairs("consentCookies");
+    }
+
+    /**
+     * Consent localStorage entries seeded before the first navigation, as comma-separated key=value pairs.
+     */
+    public static Map<String, String> getConsentLocalStorage() {
+        return getPairs("consentLocalStorage");
+    }
+
+    /**
+     * How many times StageRetryAnalyzer retries the failed stage of a test.
+     */
+    public static int getStageRetryMax() {
+        return Integer.parseInt(System.getProperty("stageRetryMax", PROPS.getProperty("stageRetryMax", "1")));
+    }
+
+    /**
+     * Whether tests that only need a filled cart build it through the REST API (CartFixtures) instead of the UI.
+     */
+    public static boolean isApiFixturesEnabled() {
+        return Boolean.parseBoolean(System.getProperty("apiFixturesEnabled", PROPS.getProperty("apiFixturesEnabled", "false")));
+    }
+
+    /**
+     * Base URL of the storefront REST API; defaults to the base URL.
+     */
+    public static String getApiBaseUrl() {
+        return System.getProperty("apiBaseUrl", PROPS.getProperty("apiBaseUrl", getBaseUrl()));
+    }
+
+    /**
+     * SKU of the simple product CartFixtures puts in guest carts.
+     */
+    public static String getFixtureSku() {
+        return System.getProperty("fixtureSku", PROPS.getProperty("fixtureSku", "24-MB01"));
+    }
+
+    /**
+     * Cookie through which a guest cart created by CartFixtures is attached to the browser session.
+     */
+    public static String getFixtureCartCookie() {
+        return System.getProperty("fixtureCartCookie", PROPS.getProperty("fixtureCartCookie", "guest_cart_id"));
+    }
+
+    /**
+     * Whether the suite runs against the embedded StorefrontStub instead of baseUrl.
+     */
+    public static boolean isStubEnabled() {
+        return Boolean.parseBoolean(System.getProperty("stubEnabled", PROPS.getProperty("stubEnabled", "false")));
+    }
+
+    /**
+     * Port of the storefront stub; 0 picks a free port.
+     */
+    public static int getStubPort() {
+        return Integer.parseInt(System.getProperty("stubPort", PROPS.getProperty("stubPort", "0")));
+    }
+
+    /**
+     * Latency the storefront stub adds to every response.
+     */
+    public static long getStubLatencyMillis() {
+        return Long.parseLong(System.getProperty("stubLatencyMillis", PROPS.getProperty("stubLatencyMillis", "0")));
+    }
+
+    /**
+     * Upper bound of the random extra latency the storefront stub adds to each response.
+     */
+    public static long getStubJitterMillis() {
+        return Long.parseLong(System.getProperty("stubJitterMillis", PROPS.getProperty("stubJitterMillis", "0")));
+    }
+
+    /**
+     * Whether page objects record front-end performance metrics (PagePerformance) once their page is loaded.
+     */
+    public static boolean isPagePerformanceEnabled() {
+        return Boolean.parseBoolean(System.getProperty("pagePerformanceEnabled", PROPS.getProperty("pagePerformanceEnabled", "true")));
+    }
+
+    /**
+     * What an exceeded performance budget does: warn (log only) or fail (the test fails).
+     */
+    public static String getPerfBudgetMode() {
+        return System.getProperty("perfBudgetMode", PROPS.getProperty("perfBudgetMode", "warn"));
+    }
+
+    /**
+     * Budget of a metric for a page: perfBudget.[page].[metric], else perfBudget.[metric], else null (no budget).
+     */
+    public static Double getPerfBudget(String page, String metric) {
+        String pageKey = "perfBudget." + page + "." + metric;
+        String globalKey = "perfBudget." + metric;
+        String value = System.getProperty(pageKey, PROPS.getProperty(pageKey,
+            System.getProperty(globalKey, PROPS.getProperty(globalKey))));
+        return value == null || value.isBlank() ? null : Double.valueOf(value.trim());
+    }
+
+    public static String getPagePerformanceFile() {
+        return System.getProperty("pagePerformanceFile", PROPS.getProperty("pagePerformanceFile", "target/storefront-performance.json"));
+    }
+
+    /**
+     * File keeping per-test durations across runs, used to order tests longest first and to plan shards.
+     */
+    public static String getDurationHistoryFile() {
+        return System.getProperty("durationHistoryFile", PROPS.getProperty("durationHistoryFile", ".test-history/durations.properties"));
+    }
+
+    /**
+     * Whether test methods are reordered (and sharded) from their recorded durations.
+     */
+    public static boolean isDurationSchedulingEnabled() {
+        return Boolean.parseBoolean(System.getProperty("durationSchedulingEnabled", PROPS.getProperty("durationSchedulingEnabled", "true")));
+    }
+
+    /**
+     * Number of shards (forks or CI machines) the suite is split into.
+     */
+    public static int getShardCount() {
+        return Integer.parseInt(System.getProperty("shardCount", PROPS.getProperty("shardCount", "1")));
+    }
+
+    /**
+     * Shard run by this JVM, from 0 to shardCount - 1.
+     */
+    public static int getShardIndex() {
+        return Integer.parseInt(System.getProperty("shardIndex", PROPS.getProperty("shardIndex", "0")));
+    }
+
+    public static String getShardPlanFile() {
+        return System.getProperty("shardPlanFile", PROPS.getProperty("shardPlanFile", "target/shard-plan.json"));
+    }
+
+    /**
+     * Whether passing tests save their storefront traffic as load scenarios (TrafficRecorder, Chrome/Edge only).
+     */
+    public static boolean isTrafficRecordingEnabled() {
+        return Boolean.parseBoolean(System.getProperty("trafficRecordingEnabled", PROPS.getProperty("trafficRecordingEnabled", "false")));
+    }
+
+    public static String getTrafficDir() {
+        return System.getProperty("trafficDir", PROPS.getProperty("trafficDir", "target/traffic"));
+    }
+
+    /**
+     * Recorded scenarios the load replay uses, e.g. EcommerceFlowTest.guestCheckoutFlow (empty = all of them).
+     */
+    public static List<String> getLoadScenarios() {
+        return getList("loadScenarios");
+    }
+
+    /**
+     * Storefront the load replay targets (defaults to baseUrl).
+     */
+    public static String getLoadBaseUrl() {
+        return System.getProperty("loadBaseUrl", PROPS.getProperty("loadBaseUrl", getBaseUrl()));
+    }
+
+    /**
+     * Number of concurrent virtual users of the load replay.
+     */
+    public static int getLoadUsers() {
+        return Integer.parseInt(System.getProperty("loadUsers", PROPS.getProperty("loadUsers", "100")));
+    }
+
+    /**
+     * Time over which the virtual users are started.
+     */
+    public static long getLoadRampUpSeconds() {
+        return Long.parseLong(System.getProperty("loadRampUpSeconds", PROPS.getProperty("loadRampUpSeconds", "30")));
+    }
+
+    /**
+     * Total duration of the load replay, ramp-up included.
+     */
+    public static long getLoadDurationSeconds() {
+        return Long.parseLong(System.getProperty("loadDurationSeconds", PROPS.getProperty("loadDurationSeconds", "120")));
+    }
+
+    /**
+     * Mean pause of a virtual user before each page request.
+     */
+    public static long getLoadThinkTimeMillis() {
+        return Long.parseLong(System.getProperty("loadThinkTimeMillis", PROPS.getProperty("loadThinkTimeMillis", "1000")));
+    }
+
+    public static String getLoadReportFile() {
+        return System.getProperty("loadReportFile", PROPS.getProperty("loadReportFile", "target/load-report.json"));
+    }
+
+    /**
+     * Isolated sessions (CDP browser contexts) sharing one Chrome/Edge process; 1 = one browser per session.
+     */
+    public static int getContextsPerBrowser() {
+        return Math.max(1, Integer.parseInt(System.getProperty("contextsPerBrowser", PROPS.getProperty("contextsPerBrowser", "1"))));
+    }
+
+    /**
+     * Whether browser process memory is sampled during the run and reported per concurrent test.
+     */
+    public static boolean isBrowserMemoryReportEnabled() {
+        return Boolean.parseBoolean(System.getProperty("browserMemoryReportEnabled", PROPS.getProperty("browserMemoryReportEnabled", "true")));
+    }
+
+    /**
+     * File keeping the memory per concurrent test of previous runs, per contextsPerBrowser value.
+     */
+    public static String getBrowserMemoryFile() {
+        return System.getProperty("browserMemoryFile", PROPS.getProperty("browserMemoryFile", ".test-history/browser-memory.properties"));
+    }
+
+    /**
+     * Whether new browser sessions wait for AdmissionControl to see enough free memory and CPU.
+     */
+    public static boolean isAdmissionControlEnabled() {
+        return Boolean.parseBoolean(System.getProperty("admissionControlEnabled", PROPS.getProperty("admissionControlEnabled", "true")));
+    }
+
+    /**
+     * Memory use of the machine that new sessions must stay under (0 = 85% of physical memory).
+     */
+    public static long getAdmissionMemoryCeilingMb() {
+        return Long.parseLong(System.getProperty("admissionMemoryCeilingMb", PROPS.getProperty("admissionMemoryCeilingMb", "0")));
+    }
+
+    /**
+     * System CPU load (0-1) above which no new session is admitted.
+     */
+    public static double getAdmissionMaxCpuLoad() {
+        return Double.parseDouble(System.getProperty("admissionMaxCpuLoad", PROPS.getProperty("admissionMaxCpuLoad", "0.9")));
+    }
+
+    /**
+     * Assumed memory of one session until it has been measured.
+     */
+    public static long getAdmissionSessionEstimateMb() {
+        return Long.parseLong(System.getProperty("admissionSessionEstimateMb", PROPS.getProperty("admissionSessionEstimateMb", "300")));
+    }
+
+    /**
+     * Hard cap on concurrent sessions whatever the resources (0 = none).
+     */
+    public static int getAdmissionMaxSessions() {
+        int max = Integer.parseInt(System.getProperty("admissionMaxSessions", PROPS.getProperty("admissionMaxSessions", "0")));
+        return max > 0 ? max : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Catalog export (CSV or JSON Lines, file path or classpath resource) driving the data-driven search tests.
+     */
+    public static String getCatalogDataFile() {
+        return System.getProperty("catalogDataFile", PROPS.getProperty("catalogDataFile", "data/catalog-search.csv"));
+    }
+
+    /**
+     * Fraction of the catalog rows that run (1 = all of them).
+     */
+    public static double getCatalogSampleRate() {
+        return Double.parseDouble(System.getProperty("catalogSampleRate", PROPS.getProperty("catalogSampleRate", "1")));
+    }
+
+    /**
+     * Seed of the row sampling; another seed picks another sample of the same size.
+     */
+    public static long getCatalogSampleSeed() {
+        return Long.parseLong(System.getProperty("catalogSampleSeed", PROPS.getProperty("catalogSampleSeed", "0")));
+    }
+
+    /**
+     * Number of shards the catalog rows are split into.
+     */
+    public static int getCatalogShardCount() {
+        return Integer.parseInt(System.getProperty("catalogShardCount", PROPS.getProperty("catalogShardCount", "1")));
+    }
+
+    /**
+     * Shard of the catalog rows run by this JVM, from 0 to catalogShardCount - 1.
+     */
+    public static int getCatalogShardIndex() {
+        return Integer.parseInt(System.getProperty("catalogShardIndex", PROPS.getProperty("catalogShardIndex", "0")));
+    }
+
+    /**
+     * Whether repeated query/product rows run only once.
+     */
+    public static boolean isCatalogDedup() {
+        return Boolean.parseBoolean(System.getProperty("catalogDedup", PROPS.getProperty("catalogDedup", "true")));
+    }
+
+    /**
+     * Maximum number of catalog rows run after sampling, sharding and deduplication (0 = no limit).
+     * TestNG queues all rows of the parallel data provider up front, so this also bounds their memory.
+     */
+    public static long getCatalogMaxRows() {
+        return Long.parseLong(System.getProperty("catalogMaxRows", PROPS.getProperty("catalogMaxRows", "1000")));
+    }
+
+    /**
+     * Whether each run's test and step durations are appended to the run history and compared with earlier runs.
+     */
+    public static boolean isRunHistoryEnabled() {
+        return Boolean.parseBoolean(System.getProperty("runHistoryEnabled", PROPS.getProperty("runHistoryEnabled", "true")));
+    }
+
+    /**
+     * Append-only file keeping one JSON line per run.
+     */
+    public static String getRunHistoryFile() {
+        return System.getProperty("runHistoryFile", PROPS.getProperty("runHistoryFile", ".test-history/runs.jsonl"));
+    }
+
+    /**
+     * Number of earlier runs in the same environment forming the rolling baseline.
+     */
+    public static int getRunHistoryBaselineRuns() {
+        return Integer.parseInt(System.getProperty("runHistoryBaselineRuns", PROPS.getProperty("runHistoryBaselineRuns", "10")));
+    }
+
+    /**
+     * Minimum number of baseline values before a metric can be reported as a regression.
+     */
+    public static int getRunHistoryMinBaselineRuns() {
+        return Integer.parseInt(System.getProperty("runHistoryMinBaselineRuns", PROPS.getProperty("runHistoryMinBaselineRuns", "3")));
+    }
+
+    /**
+     * Relative slowdown against the baseline median below which a metric is never a regression (0.2 = 20%).
+     */
+    public static double getRunRegressionThreshold() {
+        return Double.parseDouble(System.getProperty("runRegressionThreshold", PROPS.getProperty("runRegressionThreshold", "0.2")));
+    }
+
+    /**
+     * Absolute slowdown in ms below which a metric is never a regression.
+     */
+    public static double getRunRegressionMinMillis() {
+        return Double.parseDouble(System.getProperty("runRegressionMinMillis", PROPS.getProperty("runRegressionMinMillis", "50")));
+    }
+
+    /**
+     * Whether a detected regression fails the build.
+     */
+    public static boolean isRunHistoryFailOnRegression() {
+        return Boolean.parseBoolean(System.getProperty("runHistoryFailOnRegression", PROPS.getProperty("runHistoryFailOnRegression", "false")));
+    }
+
+    public static String getRunTrendReportFile() {
+        return System.getProperty("runTrendReportFile", PROPS.getProperty("runTrendReportFile", "target/run-trend.json"));
+    }
+
+    private static List<String> getList(String key) {
+        String value = System.getProperty(key, PROPS.getProperty(key, ""));
+        return Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(item -> !item.isEmpty())
+            .collect(Collectors.toList());
+    }
+
+    private static Map<String, String> getPairs(String key) {
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (String pair : getList(key)) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                pairs.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+            }
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.data;
+
+import com.ecommerce.config.TestConfig;
+import org.testng.annotations.DataProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Query/product combinations for the data-driven search tests, streamed from a catalog export
+ * (columns query, product and optionally addToCart). Rows can be sampled, split into shards and
+ * deduplicated; all three decisions hash the row's query and product, so they are the same on every
+ * machine and in every run with the same seed. Deduplication keeps one 64-bit hash per distinct row.
+ * The export itself is never loaded, but TestNG drains a parallel data provider's iterator before the
+ * first invocation (one queued task per row), so every selected row is held in memory: catalogMaxRows
+ * (1000 by default) bounds that, and larger exports are covered by sharding them across runs.
+ */
+public class CatalogDataProvider {
+
+    private CatalogDataProvider() {
+    }
+
+    @DataProvider(name = "catalogSearch", parallel = true)
+    public static Iterator<Object[]> catalogSearch() {
+        return rows(TestConfig.getCatalogDataFile());
+    }
+
+    /**
+     * Rows of a catalog export as {query, product, addToCart}, filtered by the catalog* options.
+     */
+    public static Iterator<Object[]> rows(String location) {
+        return rows(location, TestConfig.getCatalogSampleRate(), TestConfig.getCatalogSampleSeed(),
+            TestConfig.getCatalogShardCount(), TestConfig.getCatalogShardIndex(), TestConfig.isCatalogDedup(),
+            TestConfig.getCatalogMaxRows());
+    }
+
+    /**
+     * Rows of a catalog export as {query, product, addToCart}, filtered by the given options
+     * (a maxRows of 0 or less keeps every selected row).
+     */
+    public static Iterator<Object[]> rows(String location, double sampleRate, long seed, int shardCount,
+                                          int shardIndex, boolean dedup, long maxRows) {
+        int shards = Math.max(1, shardCount);
+        Set<Long> seen = dedup ? Collections.newSetFromMap(new ConcurrentHashMap<>()) : null;
+
+        Stream<Map<String, String>> records = CatalogReader.open(location);
+        Stream<Object[]> rows = records
+            .filter(record -> !isBlank(record.get("query")) && !isBlank(record.get("product")))
+            .filter(record -> {
+                long hash = hash(key(record), 0);
+                return Math.floorMod(hash, shards) == shardIndex
+                    && (sampleRate >= 1 || (hash(key(record), seed) >>> 11) * 0x1.0p-53 < sampleRate)
+                    && (seen == null || seen.add(hash));
+            })
+            .map(record -> new Object[] {record.get("query").trim(), record.get("product").trim(),
+                Boolean.parseBoolean(String.valueOf(record.getOrDefault("addToCart", "false")).trim())});
+        if (maxRows > 0) {
+            rows = rows.limit(maxRows);
+        }
+        return closing(rows);
+    }
+
+    /**
+     * Iterator that closes the underlying file as soon as the last row has been handed out.
+     */
+    private static Iterator<Object[]> closing(Stream<Object[]> rows) {
+        Iterator<Object[]> iterator = rows.iterator();
+        return new Iterator<>() {
+            private boolean closed;
+
+            @Override
+            public boolean hasNext() {
+                if (closed) {
+                    return false;
+                }
+                if (!iterator.hasNext()) {
+                    closed = true;
+                    rows.close();
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return iterator.next();
+            }
+        };
+    }
+
+    private static String key(Map<String, String> record) {
+        return record.get("query").trim().toLowerCase() + '\u0000' + record.get("product").trim().toLowerCase();
+    }
+
+    /**
+     * 64-bit FNV-1a of the key salted with the seed, with a final avalanche so every bit is usable.
+     */
+    private static long hash(String key, long seed) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.data;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+public class CatalogDataProviderTest {
+
+    private static final int ROWS = 400;
+
+    private Path catalog;
+
+    @BeforeClass
+    public void writeCatalog() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("query,product,addToCart");
+        for (int i = 0; i < ROWS; i++) {
+            lines.add("query" + i + ",Product " + i + "," + (i % 2 == 0));
+        }
+        catalog = Files.createTempFile("catalog", ".csv");
+        Files.write(catalog, lines, StandardCharsets.UTF_8);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteCatalog() throws IOException {
+        Files.deleteIfExists(catalog);
+    }
+
+    @Test(description = "Toutes les lignes, dans l'ordre, sans filtre")
+    public void returnsEveryRowByDefault() {
+        // Default catalog* options: every row, at most 1000 of them
+        List<Object[]> rows = new ArrayList<>();
+        CatalogDataProvider.rows(catalog.toString()).forEachRemaining(rows::add);
+
+        Assert.assertEquals(rows.size(), ROWS);
+        Assert.assertEquals(rows.get(3), new Object[] {"query3", "Product 3", false});
+    }
+
+    @Test(description = "Les shards sont disjoints et couvrent toutes les lignes")
+    public void shardsAreDisjointAndComplete() {
+        Set<String> all = new HashSet<>();
+        int total = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            Set<String> keys = keys(rows(1, 0, 4, shard, 0));
+            Assert.assertTrue(keys.size() > ROWS / 8, "Shard " + shard + " anormalement petit : " + keys.size());
+            Assert.assertEquals(keys, keys(rows(1, 0, 4, shard, 0)), "Le contenu d'un shard doit être stable.");
+            total += keys.size();
+            all.addAll(keys);
+        }
+        Assert.assertEquals(total, ROWS, "Une ligne est dans plusieurs shards.");
+        Assert.assertEquals(all.size(), ROWS, "Une ligne n'est dans aucun shard.");
+    }
+
+    @Test(description = "Échantillon reproductible par graine, et inclus dans tout échantillon plus large")
+    public void samplingIsSeededAndNested() {
+        Set<String> sample = keys(rows(0.25, 0, 1, 0, 0));
+        Assert.assertEquals(keys(rows(0.25, 0, 1, 0, 0)), sample, "La même graine doit tirer le même échantillon.");
+        Assert.assertTrue(sample.size() > ROWS * 0.15 && sample.size() < ROWS * 0.35,
+            "Taille d'échantillon hors tolérance : " + sample.size());
+
+        Assert.assertTrue(keys(rows(0.5, 0, 1, 0, 0)).containsAll(sample),
+            "Un échantillon plus large doit contenir le plus petit.");
+
+        Assert.assertNotEquals(keys(rows(0.25, 42, 1, 0, 0)), sample, "Une autre graine doit tirer un autre échantillon.");
+    }
+
+    @Test(description = "Les doublons (sans tenir compte de la casse) ne sont joués qu'une fois")
+    public void deduplicatesCaseInsensitively() throws IOException {
+        Path file = Files.createTempFile("catalog-dups", ".csv");
+        try {
+            Files.write(file, List.of("query,product", "bag,Joust Duffle Bag", " BAG ,joust duffle bag", "bag,Other Bag"),
+                StandardCharsets.UTF_8);
+
+            Assert.assertEquals(count(CatalogDataProvider.rows(file.toString(), 1, 0, 1, 0, true, 0)), 2);
+            Assert.assertEquals(count(CatalogDataProvider.rows(file.toString(), 1, 0, 1, 0, false, 0)), 3);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "maxRows borne le nombre de lignes, 0 ne les limite pas")
+    public void limitsRows() {
+        Assert.assertEquals(rows(1, 0, 1, 0, 25).size(), 25);
+        Assert.assertEquals(rows(1, 0, 1, 0, 0).size(), ROWS);
+    }
+
+    private List<Object[]> rows(double sampleRate, long seed, int shardCount, int shardIndex, long maxRows) {
+        List<Object[]> rows = new ArrayList<>();
+        CatalogDataProvider.rows(catalog.toString(), sampleRate, seed, shardCount, shardIndex, true, maxRows)
+            .forEachRemaining(rows::add);
+        return rows;
+    }
+
+    private static Set<String> keys(List<Object[]> rows) {
+        Set<String> keys = new HashSet<>();
+        for (Object[] row : rows) {
+            keys.add(row[0] + "|" + row[1]);
+        }
+        return keys;
+    }
+
+    private static int count(Iterator<Object[]> rows) {
+        int count = 0;
+        while (rows.hasNext()) {
+            rows.next();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.data;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Streams the records of a catalog export one line at a time: CSV with a header row (RFC 4180 quoting,
+ * one record per line) or JSON Lines (one object per line). Nothing but the current line is held in memory;
+ * close the stream (or exhaust it) to release the file.
+ */
+public class CatalogReader {
+
+    private static final Json JSON = new Json();
+
+    private CatalogReader() {
+    }
+
+    /**
+     * Opens a file path, or a classpath resource when no such file exists.
+     */
+    public static Stream<Map<String, String>> open(String location) {
+        BufferedReader reader = reader(location);
+        Stream<String> lines = reader.lines().filter(line -> !line.isBlank()).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return location.endsWith(".jsonl") || location.endsWith(".ndjson") ? jsonLines(lines) : csv(lines);
+    }
+
+    private static Stream<Map<String, String>> jsonLines(Stream<String> lines) {
+        return lines.map(line -> {
+            Map<String, Object> object = JSON.toType(line, Json.MAP_TYPE);
+            Map<String, String> record = new LinkedHashMap<>();
+            object.forEach((key, value) -> record.put(key, value == null ? null : String.valueOf(value)));
+            return record;
+        });
+    }
+
+    private static Stream<Map<String, String>> csv(Stream<String> lines) {
+        // Sequential stream: the first line seen is the header
+        List<String> columns = new ArrayList<>();
+        return lines.sequential().map(line -> {
+            List<String> fields = splitCsv(line);
+            if (columns.isEmpty()) {
+                fields.forEach(field -> columns.add(field.trim()));
+                return null;
+            }
+            Map<String, String> record = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                record.put(columns.get(i), i < fields.size() ? fields.get(i) : null);
+            }
+            return record;
+        }).filter(Objects::nonNull);
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static BufferedReader reader(String location) {
+        try {
+            Path path = Paths.get(location);
+            if (Files.isRegularFile(path)) {
+                return Files.newBufferedReader(path, StandardCharsets.UTF_8);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Unable to open catalog data " + location, e);
+        }
+        InputStream in = CatalogReader.class.getClassLoader().getResourceAsStream(location);
+        if (in == null) {
+            throw new IllegalArgumentException("Catalog data not found as a file or on the classpath: " + location);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+}
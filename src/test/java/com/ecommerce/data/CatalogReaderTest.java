@@ -0,0 +1,79 @@
+package com.ecommerce.data;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CatalogReaderTest {
+
+    @Test(description = "Découpage CSV : champs entre guillemets, guillemets doublés, champs vides")
+    public void splitsCsvWithRfc4180Quoting() {
+        Assert.assertEquals(CatalogReader.splitCsv("bag,Joust Duffle Bag,true"), List.of("bag", "Joust Duffle Bag", "true"));
+        Assert.assertEquals(CatalogReader.splitCsv("\"tee, short\",\"Tee \"\"Classic\"\"\",false"),
+            List.of("tee, short", "Tee \"Classic\"", "false"));
+        Assert.assertEquals(CatalogReader.splitCsv(",,"), List.of("", "", ""));
+        Assert.assertEquals(CatalogReader.splitCsv("jacket,"), List.of("jacket", ""));
+        Assert.assertEquals(CatalogReader.splitCsv("\"\""), List.of(""));
+    }
+
+    @Test(description = "CSV : l'en-tête nomme les colonnes, les lignes vides sont ignorées")
+    public void readsCsvRecordsByHeader() throws IOException {
+        Path file = Files.createTempFile("catalog", ".csv");
+        try {
+            Files.write(file, Arrays.asList("query, product ,addToCart", "bag,\"Joust Duffle Bag\",true", "", "jacket,Jupiter"),
+                StandardCharsets.UTF_8);
+
+            List<Map<String, String>> records;
+            try (Stream<Map<String, String>> stream = CatalogReader.open(file.toString())) {
+                records = stream.collect(Collectors.toList());
+            }
+
+            Assert.assertEquals(records.size(), 2);
+            Assert.assertEquals(records.get(0), Map.of("query", "bag", "product", "Joust Duffle Bag", "addToCart", "true"));
+            Assert.assertEquals(records.get(1).get("product"), "Jupiter");
+            Assert.assertNull(records.get(1).get("addToCart"), "Une colonne absente de la ligne doit être null.");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "JSON Lines : une ligne par objet, valeurs converties en texte")
+    public void readsJsonLines() throws IOException {
+        Path file = Files.createTempFile("catalog", ".jsonl");
+        try {
+            Files.write(file, Arrays.asList("{\"query\":\"bag\",\"product\":\"Joust Duffle Bag\",\"addToCart\":true}",
+                "{\"query\":\"tee\",\"product\":\"Tee\",\"rank\":3}"), StandardCharsets.UTF_8);
+
+            List<Map<String, String>> records;
+            try (Stream<Map<String, String>> stream = CatalogReader.open(file.toString())) {
+                records = stream.collect(Collectors.toList());
+            }
+
+            Assert.assertEquals(records.get(0).get("addToCart"), "true");
+            Assert.assertEquals(records.get(1).get("rank"), "3");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "Le fichier d'exemple est trouvé sur le classpath")
+    public void opensClasspathResource() {
+        try (Stream<Map<String, String>> stream = CatalogReader.open("data/catalog-search.csv")) {
+            Assert.assertTrue(stream.allMatch(record -> record.containsKey("query") && record.containsKey("product")));
+        }
+    }
+
+    @Test(description = "Une source introuvable est signalée", expectedExceptions = IllegalArgumentException.class)
+    public void rejectsMissingData() {
+        CatalogReader.open("data/does-not-exist.csv");
+    }
+}
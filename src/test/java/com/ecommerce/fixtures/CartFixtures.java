@@ -0,0 +1,58 @@
+package com.ecommerce.fixtures;
+
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.metrics.StepTimings;
+import com.ecommerce.pages.CartPage;
+import com.ecommerce.pages.PageReadiness;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.Map;
+
+/**
+ * Builds guest carts through the REST API (/rest/V1/guest-carts) instead of the product page UI,
+ * for tests that need a filled cart but do not assert on add-to-cart itself.
+ * The cart is handed to the browser through the fixtureCartCookie cookie: the local storefront stub
+ * honours it, a real Magento instance needs a storefront hook that loads the quote from it.
+ */
+public class CartFixtures {
+
+    private CartFixtures() {
+    }
+
+    /**
+     * Creates an empty guest cart.
+     *
+     * @return the masked cart id
+     */
+    public static String createGuestCart() {
+        return String.valueOf(StorefrontApi.post("/rest/V1/guest-carts", null));
+    }
+
+    /**
+     * Adds a (simple) product to a guest cart.
+     */
+    public static void addItem(String cartId, String sku, int qty) {
+        StorefrontApi.post("/rest/V1/guest-carts/" + cartId + "/items",
+            Map.of("cartItem", Map.of("sku", sku, "qty", qty, "quote_id", cartId)));
+    }
+
+    /**
+     * Creates a guest cart holding the product, attaches it to the browser session and opens the cart page.
+     * The session must be on the storefront origin already (BaseTest opens the base URL).
+     */
+    public static CartPage openCartWith(WebDriver driver, WebDriverWait wait, String sku, int qty) {
+        long start = System.nanoTime();
+        String cartId = createGuestCart();
+        addItem(cartId, sku, qty);
+        driver.manage().addCookie(new Cookie(TestConfig.getFixtureCartCookie(), cartId, "/"));
+        // Drop cached customer sections so the mini-cart reloads the injected cart
+        ((JavascriptExecutor) driver).executeScript("try { localStorage.removeItem('mage-cache-storage'); } catch (e) {}");
+        driver.get(TestConfig.getBaseUrl().replaceAll("/+$", "") + "/checkout/cart/");
+        PageReadiness.await(driver);
+        StepTimings.record("CartFixtures.openCartWith", System.nanoTime() - start);
+        return new CartPage(driver, wait);
+    }
+}
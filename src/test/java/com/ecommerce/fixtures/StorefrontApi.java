@@ -0,0 +1,65 @@
+package com.ecommerce.fixtures;
+
+import com.ecommerce.config.TestConfig;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Minimal JSON client for the storefront REST API (/rest/V1/...).
+ * A single HttpClient is shared by all threads, so connections are kept alive and reused
+ * across fixture calls instead of paying a TCP/TLS handshake per request.
+ */
+public class StorefrontApi {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(TestConfig.getExplicitWaitSeconds()))
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+    private static final Json JSON = new Json();
+
+    private StorefrontApi() {
+    }
+
+    /**
+     * POSTs the body as JSON and returns the decoded response (a String, Number, List or Map).
+     */
+    public static Object post(String path, Object body) {
+        return send(HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body == null ? "" : JSON.toJson(body))));
+    }
+
+    public static Object get(String path) {
+        return send(HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private static Object send(HttpRequest.Builder builder) {
+        HttpRequest request = builder
+            .header("Accept", "application/json")
+            .timeout(Duration.ofSeconds(TestConfig.getExplicitWaitSeconds()))
+            .build();
+        try {
+            HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new RuntimeException(request.method() + " " + request.uri() + " returned "
+                    + response.statusCode() + ": " + response.body());
+            }
+            return response.body().isEmpty() ? null : JSON.toType(response.body(), Object.class);
+        } catch (IOException e) {
+            throw new RuntimeException(request.method() + " " + request.uri() + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during " + request.method() + " " + request.uri(), e);
+        }
+    }
+
+    private static URI uri(String path) {
+        return URI.create(TestConfig.getApiBaseUrl().replaceAll("/+$", "") + path);
+    }
+}
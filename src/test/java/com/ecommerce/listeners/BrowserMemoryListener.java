@@ -0,0 +1,57 @@
+package com.ecommerce.listeners;
+
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.metrics.BrowserMemory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Feeds BrowserMemory with the number of tests running and prints the memory per concurrent test at suite end.
+ */
+public class BrowserMemoryListener implements ITestListener, ISuiteListener {
+
+    private static final String STARTED = BrowserMemoryListener.class.getName() + ".started";
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (TestConfig.isBrowserMemoryReportEnabled()) {
+            BrowserMemory.start();
+        }
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        result.setAttribute(STARTED, Boolean.TRUE);
+        BrowserMemory.testStarted();
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finished(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finished(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        finished(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        BrowserMemory.stopAndReport();
+    }
+
+    private static void finished(ITestResult result) {
+        // Tests skipped before they started (e.g. failed dependencies) were never counted
+        if (result.getAttribute(STARTED) != null) {
+            result.removeAttribute(STARTED);
+            BrowserMemory.testFinished();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.listeners;
+
+import com.ecommerce.config.Checkpoints;
+import com.ecommerce.config.Stages;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tracks the stages of the running test for StageRetryAnalyzer and drops the session checkpoints
+ * a test captured or restored once it has failed for good, so later tests rebuild that stage
+ * through the UI instead of reusing state that may be broken.
+ */
+public class CheckpointListener implements ITestListener, ISuiteListener {
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        Checkpoints.beginTest();
+        Stages.beginTest(testKey(result));
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        end(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        end(result);
+        if (result.wasRetried()) {
+            return;
+        }
+        List<String> stages = Checkpoints.invalidateTouched();
+        if (!stages.isEmpty()) {
+            System.out.println("Checkpoints invalidated after " + result.getMethod().getMethodName() + " failed: " + stages);
+        }
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        end(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Stages.printSummary();
+    }
+
+    static String testKey(ITestResult result) {
+        String key = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0 ? key : key + Arrays.toString(parameters);
+    }
+
+    private static void end(ITestResult result) {
+        Stages.endTest(testKey(result), result.getEndMillis() - result.getStartMillis(), !result.wasRetried());
+    }
+}
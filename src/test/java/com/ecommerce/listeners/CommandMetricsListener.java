@@ -0,0 +1,43 @@
+package com.ecommerce.listeners;
+
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.metrics.CommandMetrics;
+import com.ecommerce.metrics.PagePerformance;
+import com.ecommerce.metrics.StepTimings;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.nio.file.Paths;
+
+/**
+ * Tags WebDriver commands with the test (or configuration) method running on the current thread,
+ * and exports the command latency, step duration and storefront performance reports when the suite ends.
+ */
+public class CommandMetricsListener implements IInvokedMethodListener, ISuiteListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        CommandMetrics.setCurrentTest(testResult.getTestClass().getRealClass().getSimpleName()
+            + "." + method.getTestMethod().getMethodName());
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        CommandMetrics.clearCurrentTest();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        StepTimings.printSummary();
+        PagePerformance.printSummary();
+        PagePerformance.exportJson(Paths.get(TestConfig.getPagePerformanceFile()));
+        if (!TestConfig.isCommandMetricsEnabled()) {
+            return;
+        }
+        CommandMetrics.exportJson(Paths.get(TestConfig.getCommandMetricsFile()));
+        CommandMetrics.printSummary(10);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.listeners;
+
+import com.ecommerce.config.AdaptiveWait;
+import com.ecommerce.config.AdmissionControl;
+import com.ecommerce.config.DriverPool;
+import com.ecommerce.config.DriverServices;
+import com.ecommerce.config.RequestFilter;
+import com.ecommerce.config.SharedBrowsers;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Closes the pooled browser sessions and the shared driver services once the suite is done,
+ * printing the pool, driver service, admission and request filter reports, and saves the learned wait timeouts.
+ */
+public class DriverLifecycleListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        DriverPool.shutdown();
+        SharedBrowsers.shutdown();
+        DriverServices.shutdown();
+        AdmissionControl.shutdown();
+        RequestFilter.report();
+        AdaptiveWait.saveHistory();
+    }
+}
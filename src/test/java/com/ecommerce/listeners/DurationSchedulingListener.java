@@ -0,0 +1,128 @@
+package com.ecommerce.listeners;
+
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.scheduling.DurationStore;
+import com.ecommerce.scheduling.ShardPlanner;
+import org.openqa.selenium.json.Json;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Orders test methods longest first from the durations recorded in previous runs, so the slowest
+ * browser flows start while every thread is still free instead of finishing alone at the end.
+ * With shardCount > 1 it also keeps only the methods planned for shardIndex, splitting the suite
+ * into shards of balanced expected duration for several surefire forks or CI machines.
+ */
+public class DurationSchedulingListener implements IMethodInterceptor, ITestListener, ISuiteListener {
+
+    private static final DurationStore STORE = new DurationStore(Paths.get(TestConfig.getDurationHistoryFile()));
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!TestConfig.isDurationSchedulingEnabled()) {
+            return methods;
+        }
+        Map<String, Long> expected = new LinkedHashMap<>();
+        long unknown = Math.max(1, STORE.getAverage());
+        for (IMethodInstance method : methods) {
+            String test = testKey(method.getMethod());
+            expected.putIfAbsent(test, STORE.get(test).orElse(unknown));
+        }
+        int shardCount = TestConfig.getShardCount();
+        int shardIndex = TestConfig.getShardIndex();
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("shardIndex must be between 0 and " + (shardCount - 1) + ": " + shardIndex);
+        }
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(expected, shardCount);
+        Set<String> selected = Set.copyOf(shards.get(shardIndex).getTests());
+        if (shardCount > 1) {
+            writePlan(shards);
+        }
+        Map<String, Integer> rank = new HashMap<>();
+        for (String test : ShardPlanner.longestFirst(expected).keySet()) {
+            rank.put(test, rank.size());
+        }
+        List<IMethodInstance> scheduled = methods.stream()
+            .filter(method -> selected.contains(testKey(method.getMethod())))
+            .sorted(Comparator.comparingInt(method -> rank.get(testKey(method.getMethod()))))
+            .collect(Collectors.toList());
+        Map<String, Long> shardDurations = expected.entrySet().stream()
+            .filter(e -> selected.contains(e.getKey()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        System.out.println("Scheduled " + scheduled.size() + "/" + methods.size() + " methods longest first"
+            + (shardCount > 1 ? " for shard " + shardIndex + "/" + shardCount : "")
+            + ", expected " + ShardPlanner.makespan(shardDurations, TestConfig.getParallelThreads())
+            + " ms on " + TestConfig.getParallelThreads() + " threads");
+        return scheduled;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        // TestNG reports an attempt that will be retried as skipped
+        if (result.wasRetried()) {
+            record(result);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        STORE.save();
+    }
+
+    private static void record(ITestResult result) {
+        // Attempts that will be retried are part of the test's cost too, so they are counted as well
+        STORE.record(testKey(result.getMethod()), result.getEndMillis() - result.getStartMillis());
+    }
+
+    private static String testKey(ITestNGMethod method) {
+        return method.getRealClass().getSimpleName() + "." + method.getMethodName();
+    }
+
+    private static void writePlan(List<ShardPlanner.Shard> shards) {
+        List<Map<String, Object>> plan = new ArrayList<>();
+        for (ShardPlanner.Shard shard : shards) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("shard", shard.getIndex());
+            entry.put("expectedMillis", shard.getExpectedMillis());
+            entry.put("tests", shard.getTests());
+            plan.add(entry);
+        }
+        Path file = Paths.get(TestConfig.getShardPlanFile());
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, new Json().toJson(plan).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Unable to write the shard plan to " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.listeners;
+
+import com.ecommerce.config.TestConfig;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Applies the configured parallel mode and thread count to every suite before it runs,
+ * so parallelism can be tuned with -DparallelMode / -DparallelThreads without editing testng.xml.
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        XmlSuite.ParallelMode mode = XmlSuite.ParallelMode.getValidParallel(TestConfig.getParallelMode());
+        if (mode == null) {
+            throw new IllegalArgumentException("Unsupported parallelMode: " + TestConfig.getParallelMode());
+        }
+        if (mode == XmlSuite.ParallelMode.TESTS) {
+            // The suite has a single <test>, so test-level parallelism would run serially anyway
+            mode = XmlSuite.ParallelMode.METHODS;
+        }
+        int threads = TestConfig.getParallelThreads();
+        for (XmlSuite suite : suites) {
+            suite.setParallel(mode);
+            suite.setThreadCount(threads);
+            suite.setDataProviderThreadCount(threads);
+        }
+        System.out.println("Running suite with parallel=" + mode + ", threads=" + threads);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.listeners;
+
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.metrics.RunHistory;
+import com.ecommerce.metrics.StepTimings;
+import com.ecommerce.tests.BaseTest;
+import org.testng.IExecutionListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Times configuration methods (e.g. "BaseTest.setUp") as steps, collects the durations of the browser tests
+ * (subclasses of BaseTest) and, once the whole TestNG run ends, appends it to the run history as a single
+ * record and reports the metrics that got slower than their rolling baseline. With runHistoryFailOnRegression
+ * the build then fails, so a CI job stops on a performance regression. The run ends after every suite
+ * listener has recorded its steps and released its browsers, so failing here skips no cleanup.
+ */
+public class RunHistoryListener implements IInvokedMethodListener, ITestListener, IExecutionListener {
+
+    private static final ThreadLocal<Long> CONFIGURATION_START = new ThreadLocal<>();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isConfigurationMethod() && isBrowserTest(method.getTestMethod())) {
+            CONFIGURATION_START.set(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        Long start = CONFIGURATION_START.get();
+        if (method.isConfigurationMethod() && start != null) {
+            CONFIGURATION_START.remove();
+            StepTimings.record(method.getTestMethod().getConstructorOrMethod().getDeclaringClass().getSimpleName()
+                + "." + method.getTestMethod().getMethodName(), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, true);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, false);
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (!TestConfig.isRunHistoryEnabled()) {
+            return;
+        }
+        Path file = Paths.get(TestConfig.getRunHistoryFile());
+        List<Map<String, Object>> history = RunHistory.load(file);
+        Map<String, Object> run = RunHistory.currentRun();
+        RunHistory.append(file, run);
+        List<RunHistory.Trend> trends = RunHistory.compare(run, history, TestConfig.getRunHistoryBaselineRuns(),
+            TestConfig.getRunHistoryMinBaselineRuns(), TestConfig.getRunRegressionThreshold(),
+            TestConfig.getRunRegressionMinMillis());
+        RunHistory.printReport(trends, 10);
+        RunHistory.exportJson(Paths.get(TestConfig.getRunTrendReportFile()), run, trends);
+        List<String> regressions = trends.stream()
+            .filter(RunHistory.Trend::isRegression)
+            .map(RunHistory.Trend::getMetric)
+            .collect(Collectors.toList());
+        if (!regressions.isEmpty() && TestConfig.isRunHistoryFailOnRegression()) {
+            throw new IllegalStateException("Régression de performance détectée : " + String.join(", ", regressions));
+        }
+    }
+
+    private static void record(ITestResult result, boolean passed) {
+        if (!isBrowserTest(result.getMethod())) {
+            return;
+        }
+        RunHistory.recordTest(result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName(),
+            result.getEndMillis() - result.getStartMillis(), passed);
+    }
+
+    private static boolean isBrowserTest(ITestNGMethod method) {
+        return BaseTest.class.isAssignableFrom(method.getRealClass());
+    }
+}
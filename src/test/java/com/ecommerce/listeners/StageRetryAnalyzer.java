@@ -0,0 +1,18 @@
+package com.ecommerce.listeners;
+
+import com.ecommerce.config.Stages;
+import com.ecommerce.config.TestConfig;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+/**
+ * Retries a staged test (see Stages) from its last checkpoint, so only the failed page-object stage
+ * and the ones after it run again. Failures outside a stage are not retried.
+ */
+public class StageRetryAnalyzer implements IRetryAnalyzer {
+
+    @Override
+    public boolean retry(ITestResult result) {
+        return Stages.prepareRetry(CheckpointListener.testKey(result), TestConfig.getStageRetryMax());
+    }
+}
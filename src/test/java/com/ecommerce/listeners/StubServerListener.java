@@ -0,0 +1,38 @@
+package com.ecommerce.listeners;
+
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.stub.StorefrontStub;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Starts the embedded storefront stub before the suite when stubEnabled is set and points
+ * baseUrl at it, then stops it and prints how much of the run was injected site latency.
+ * Registered before DriverLifecycleListener in testng.xml so the base URL is switched before any browser starts.
+ */
+public class StubServerListener implements ISuiteListener {
+
+    private StorefrontStub stub;
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!TestConfig.isStubEnabled()) {
+            return;
+        }
+        stub = new StorefrontStub(TestConfig.getStubLatencyMillis(), TestConfig.getStubJitterMillis())
+            .start(TestConfig.getStubPort());
+        System.setProperty("baseUrl", stub.getBaseUrl());
+        System.out.println("Storefront stub serving " + stub.getBaseUrl());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (stub == null) {
+            return;
+        }
+        stub.stop();
+        System.out.println("Storefront stub: " + stub.getRequestCount() + " requests served, "
+            + stub.getInjectedLatencyMillis() + " ms of injected latency");
+        stub = null;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.load;
+
+import com.ecommerce.config.TestConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Values that belong to one visitor and cannot be replayed as recorded: the form key, the guest cart ID
+ * and the order number. Recorded requests get a ${variable} in their place; during a replay each virtual
+ * user binds the variable from its own cookies or from the response that issued the value.
+ * Session cookies themselves are never recorded, every virtual user starts with an empty cookie jar.
+ */
+public class Correlations {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(\\w+)}");
+    private static final Pattern JSON_STRING = Pattern.compile("^\"([^\"]+)\"$");
+
+    private static final List<Rule> RULES = List.of(
+        new Rule("formKey", Pattern.compile("(?:form_key=|\"form_key\":\")([^&\"${}]+)"), "form_key",
+            Pattern.compile(".*"), Pattern.compile("name=\"form_key\"[^>]*value=\"([^\"]+)\"")),
+        new Rule("cartId", Pattern.compile("guest-carts/([^/?${}]+)"), TestConfig.getFixtureCartCookie(),
+            Pattern.compile("/guest-carts$"), JSON_STRING),
+        new Rule("orderId", Pattern.compile("[?&]order=([^&${}]+)"), null,
+            Pattern.compile("/payment-information$"), JSON_STRING));
+
+    private Correlations() {
+    }
+
+    /**
+     * Replaces the per-visitor values of a recorded request with placeholders.
+     */
+    public static RecordedRequest parameterize(RecordedRequest request) {
+        return new RecordedRequest(request.getType(), request.getMethod(), parameterize(request.getPath()),
+            request.getHeaders(), request.getBody() == null ? null : parameterize(request.getBody()));
+    }
+
+    /**
+     * Fills the placeholders of a path or body with the virtual user's variables.
+     *
+     * @throws IllegalStateException if a variable was never bound, e.g. the response issuing it failed
+     */
+    public static String resolve(String template, Map<String, String> variables) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String value = variables.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalStateException("Unbound variable ${" + matcher.group(1) + "}");
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    /**
+     * Binds variables from a response the virtual user just received and its current cookies.
+     */
+    public static void bind(String path, String responseBody, Map<String, String> cookies, Map<String, String> variables) {
+        int query = path.indexOf('?');
+        String route = query < 0 ? path : path.substring(0, query);
+        for (Rule rule : RULES) {
+            if (rule.cookie != null && cookies.containsKey(rule.cookie)) {
+                variables.put(rule.variable, cookies.get(rule.cookie));
+            }
+            if (responseBody != null && rule.issuedBy.matcher(route).find()) {
+                Matcher value = rule.responseValue.matcher(responseBody.trim());
+                if (value.find()) {
+                    variables.put(rule.variable, value.group(1));
+                }
+            }
+        }
+    }
+
+    private static String parameterize(String text) {
+        for (Rule rule : RULES) {
+            Matcher matcher = rule.recorded.matcher(text);
+            StringBuilder replaced = new StringBuilder();
+            while (matcher.find()) {
+                String match = matcher.group();
+                int start = matcher.start(1) - matcher.start();
+                int end = matcher.end(1) - matcher.start();
+                matcher.appendReplacement(replaced, Matcher.quoteReplacement(
+                    match.substring(0, start) + "${" + rule.variable + "}" + match.substring(end)));
+            }
+            matcher.appendTail(replaced);
+            text = replaced.toString();
+        }
+        return text;
+    }
+
+    private static final class Rule {
+        private final String variable;
+        private final Pattern recorded;
+        private final String cookie;
+        private final Pattern issuedBy;
+        private final Pattern responseValue;
+
+        /**
+         * @param recorded      where the value appears in recorded requests (group 1)
+         * @param cookie        cookie holding the value, or null
+         * @param issuedBy      route of the responses that carry the value
+         * @param responseValue where the value appears in those responses (group 1)
+         */
+        private Rule(String variable, Pattern recorded, String cookie, Pattern issuedBy, Pattern responseValue) {
+            this.variable = variable;
+            this.recorded = recorded;
+            this.cookie = cookie;
+            this.issuedBy = issuedBy;
+            this.responseValue = responseValue;
+        }
+    }
+}
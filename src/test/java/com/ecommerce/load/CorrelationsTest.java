@@ -0,0 +1,81 @@
+package com.ecommerce.load;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class CorrelationsTest {
+
+    @Test(description = "Les valeurs propres au visiteur deviennent des variables, puis sont remplacées par celles d'un autre")
+    public void parameterizeThenResolveRoundTrips() {
+        RecordedRequest recorded = new RecordedRequest("XHR", "POST",
+            "/rest/default/V1/guest-carts/aBc123XyZ/payment-information", Map.of(),
+            "sku=24-MB01&form_key=Kf9sLq2&qty=1");
+
+        RecordedRequest template = Correlations.parameterize(recorded);
+
+        Assert.assertEquals(template.getPath(), "/rest/default/V1/guest-carts/${cartId}/payment-information");
+        Assert.assertEquals(template.getBody(), "sku=24-MB01&form_key=${formKey}&qty=1");
+        Map<String, String> variables = Map.of("cartId", "other-cart", "formKey", "otherKey");
+        Assert.assertEquals(Correlations.resolve(template.getPath(), variables),
+            "/rest/default/V1/guest-carts/other-cart/payment-information");
+        Assert.assertEquals(Correlations.resolve(template.getBody(), variables), "sku=24-MB01&form_key=otherKey&qty=1");
+    }
+
+    @Test(description = "Formes JSON du form key et numéro de commande en paramètre de requête")
+    public void parameterizesJsonFormKeyAndOrderNumber() {
+        RecordedRequest recorded = new RecordedRequest("XHR", "POST", "/checkout/onepage/success/?order=000000042&x=1",
+            Map.of(), "{\"form_key\":\"Kf9sLq2\",\"qty\":1}");
+
+        RecordedRequest template = Correlations.parameterize(recorded);
+
+        Assert.assertEquals(template.getPath(), "/checkout/onepage/success/?order=${orderId}&x=1");
+        Assert.assertEquals(template.getBody(), "{\"form_key\":\"${formKey}\",\"qty\":1}");
+    }
+
+    @Test(description = "Une requête déjà paramétrée n'est pas modifiée")
+    public void parameterizeIsIdempotent() {
+        RecordedRequest once = Correlations.parameterize(new RecordedRequest("Document", "GET",
+            "/rest/default/V1/guest-carts/abc/items?order=7", Map.of(), "form_key=k"));
+        RecordedRequest twice = Correlations.parameterize(once);
+
+        Assert.assertEquals(twice.getPath(), once.getPath());
+        Assert.assertEquals(twice.getBody(), once.getBody());
+    }
+
+    @Test(description = "Une variable jamais liée fait échouer la requête",
+        expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*\\$\\{cartId}.*")
+    public void resolveRejectsUnboundVariables() {
+        Correlations.resolve("/rest/default/V1/guest-carts/${cartId}", Map.of("formKey", "k"));
+    }
+
+    @Test(description = "Les variables sont liées depuis les cookies et les réponses qui les émettent")
+    public void bindsVariablesFromCookiesAndResponses() {
+        Map<String, String> variables = new HashMap<>();
+
+        Correlations.bind("/", "<input name=\"form_key\" type=\"hidden\" value=\"FromPage\">", Map.of(), variables);
+        Assert.assertEquals(variables.get("formKey"), "FromPage");
+
+        Correlations.bind("/rest/default/V1/guest-carts", "\"newCartId\"\n", Map.of(), variables);
+        Assert.assertEquals(variables.get("cartId"), "newCartId");
+
+        Correlations.bind("/rest/default/V1/guest-carts/newCartId/payment-information?x=1", "\"000000043\"", Map.of(), variables);
+        Assert.assertEquals(variables.get("orderId"), "000000043");
+
+        Correlations.bind("/customer/section/load/", null, Map.of("form_key", "FromCookie", "guest_cart_id", "cookieCart"), variables);
+        Assert.assertEquals(variables.get("formKey"), "FromCookie");
+        Assert.assertEquals(variables.get("cartId"), "cookieCart");
+    }
+
+    @Test(description = "Une réponse d'une autre route ne lie pas de numéro de commande")
+    public void ignoresResponsesOfOtherRoutes() {
+        Map<String, String> variables = new HashMap<>();
+
+        Correlations.bind("/rest/default/V1/guest-carts/c/items", "\"999\"", Map.of(), variables);
+
+        Assert.assertFalse(variables.containsKey("orderId"), "orderId ne doit venir que de /payment-information.");
+        Assert.assertFalse(variables.containsKey("cartId"), "cartId ne doit venir que de POST /guest-carts.");
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.load;
+
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.stub.StorefrontStub;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Command-line entry point of the load replay (mvn -Pload test-compile exec:java): replays the scenarios
+ * recorded in trafficDir against loadBaseUrl, or against the embedded storefront stub when stubEnabled is set.
+ */
+public class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) {
+        Path directory = Paths.get(TestConfig.getTrafficDir());
+        List<Scenario> scenarios = Scenario.loadAll(directory, TestConfig.getLoadScenarios());
+        if (scenarios.isEmpty()) {
+            throw new IllegalStateException("No recorded scenario in " + directory
+                + ", record some first with mvn test -DtrafficRecordingEnabled=true");
+        }
+        StorefrontStub stub = null;
+        String baseUrl = TestConfig.getLoadBaseUrl();
+        if (TestConfig.isStubEnabled()) {
+            stub = new StorefrontStub(TestConfig.getStubLatencyMillis(), TestConfig.getStubJitterMillis())
+                .start(TestConfig.getStubPort());
+            baseUrl = stub.getBaseUrl();
+        }
+        try {
+            System.out.println("Replaying " + scenarios.size() + " scenarios with " + TestConfig.getLoadUsers()
+                + " virtual users against " + baseUrl);
+            LoadRunner runner = new LoadRunner(baseUrl, scenarios);
+            runner.run(TestConfig.getLoadUsers(),
+                Duration.ofSeconds(TestConfig.getLoadRampUpSeconds()),
+                Duration.ofSeconds(TestConfig.getLoadDurationSeconds()),
+                Duration.ofMillis(TestConfig.getLoadThinkTimeMillis()),
+                Duration.ofSeconds(5));
+            runner.printSummary();
+            runner.exportJson(Paths.get(TestConfig.getLoadReportFile()));
+        } finally {
+            if (stub != null) {
+                System.out.println("Storefront stub served " + stub.getRequestCount() + " requests");
+                stub.stop();
+            }
+        }
+    }
+}
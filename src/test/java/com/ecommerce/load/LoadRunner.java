@@ -0,0 +1,319 @@
+package com.ecommerce.load;
+
+import com.ecommerce.metrics.LatencyHistogram;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Replays recorded scenarios over plain HTTP with one virtual thread per virtual user (Java 21+; one platform
+ * thread per user on older JVMs), so thousands of concurrent visitors fit in one JVM where a browser per user
+ * would not. Users start evenly over the ramp-up, each runs its scenario in a loop with a fresh cookie jar per
+ * iteration and think time before every page, until the run duration elapses. Latency is recorded per request
+ * name in LatencyHistograms; a failed request (status >= 400 or I/O error) ends the user's current iteration.
+ */
+public class LoadRunner {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration MIN_BACKOFF = Duration.ofMillis(100);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(10);
+
+    private final String baseUrl;
+    private final List<Scenario> scenarios;
+    private final HttpClient client = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder failedIterations = new LongAdder();
+    private final AtomicInteger activeUsers = new AtomicInteger();
+    private long elapsedMillis;
+    private int users;
+
+    /**
+     * @param baseUrl   storefront the recorded paths are replayed against
+     * @param scenarios scenarios to replay; virtual users are spread evenly over them
+     */
+    public LoadRunner(String baseUrl, List<Scenario> scenarios) {
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No scenario to replay");
+        }
+        this.baseUrl = baseUrl.replaceAll("/+$", "");
+        this.scenarios = scenarios;
+    }
+
+    /**
+     * Runs the load and blocks until every virtual user has stopped.
+     *
+     * @param thinkTime mean pause before each page request (uniformly drawn between 0.5x and 1.5x)
+     */
+    public void run(int users, Duration rampUp, Duration duration, Duration thinkTime, Duration reportInterval) {
+        this.users = users;
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> printProgress(start), reportInterval.toMillis(), reportInterval.toMillis(), TimeUnit.MILLISECONDS);
+        ExecutorService executor = newUserExecutor();
+        try {
+            for (int user = 0; user < users; user++) {
+                Scenario scenario = scenarios.get(user % scenarios.size());
+                long startAt = start + rampUp.toNanos() * user / Math.max(1, users);
+                executor.execute(() -> runUser(scenario, startAt, deadline, thinkTime));
+            }
+            executor.shutdown();
+            // Requests in flight at the deadline may take up to their timeout to finish
+            if (!executor.awaitTermination(duration.plus(REQUEST_TIMEOUT).toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            progress.shutdownNow();
+        }
+        elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private void runUser(Scenario scenario, long startAt, long deadline, Duration thinkTime) {
+        if (!sleepUntil(startAt)) {
+            return;
+        }
+        activeUsers.incrementAndGet();
+        try {
+            int consecutiveFailures = 0;
+            while (System.nanoTime() < deadline) {
+                if (runIteration(scenario, deadline, thinkTime)) {
+                    iterations.increment();
+                    consecutiveFailures = 0;
+                } else if (System.nanoTime() < deadline) {
+                    failedIterations.increment();
+                    // A target that is down must not turn every virtual user into a busy loop
+                    if (!backOff(++consecutiveFailures, thinkTime, deadline)) {
+                        return;
+                    }
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        } finally {
+            activeUsers.decrementAndGet();
+        }
+    }
+
+    /**
+     * One pass through the scenario as a new visitor.
+     *
+     * @return false if a request failed or the run ended midway
+     */
+    private boolean runIteration(Scenario scenario, long deadline, Duration thinkTime) {
+        Map<String, String> cookies = new HashMap<>();
+        Map<String, String> variables = new HashMap<>();
+        boolean first = true;
+        for (RecordedRequest recorded : scenario.getRequests()) {
+            if (recorded.isDocument() && !first && !think(thinkTime, deadline)) {
+                return false;
+            }
+            first = false;
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            if (!send(recorded, cookies, variables)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean send(RecordedRequest recorded, Map<String, String> cookies, Map<String, String> variables) {
+        String name = recorded.getName();
+        requests.increment();
+        long start = System.nanoTime();
+        try {
+            String path = Correlations.resolve(recorded.getPath(), variables);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+            recorded.getHeaders().forEach(request::header);
+            if (!cookies.isEmpty()) {
+                request.header("Cookie", cookies.entrySet().stream()
+                    .map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; ")));
+            }
+            String body = recorded.getBody() == null ? null : Correlations.resolve(recorded.getBody(), variables);
+            request.method(recorded.getMethod(), body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body));
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            latencies.computeIfAbsent(name, key -> new LatencyHistogram()).record(System.nanoTime() - start);
+            for (String setCookie : response.headers().allValues("Set-Cookie")) {
+                String[] pair = setCookie.split(";", 2)[0].split("=", 2);
+                if (pair.length == 2) {
+                    cookies.put(pair[0].trim(), pair[1].trim());
+                }
+            }
+            Correlations.bind(path, response.body(), cookies, variables);
+            if (response.statusCode() >= 400) {
+                fail(name);
+                return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (IOException | RuntimeException e) {
+            latencies.computeIfAbsent(name, key -> new LatencyHistogram()).record(System.nanoTime() - start);
+            fail(name);
+            return false;
+        }
+    }
+
+    private void fail(String name) {
+        failedRequests.increment();
+        errors.computeIfAbsent(name, key -> new LongAdder()).increment();
+    }
+
+    private static boolean think(Duration thinkTime, long deadline) {
+        long millis = thinkTime.toMillis();
+        if (millis <= 0) {
+            return true;
+        }
+        long pause = millis / 2 + ThreadLocalRandom.current().nextLong(millis + 1);
+        return sleepUntil(Math.min(deadline, System.nanoTime() + pause * 1_000_000)) && System.nanoTime() < deadline;
+    }
+
+    /**
+     * Pause after a failed iteration: the think time (at least MIN_BACKOFF), doubled for each consecutive
+     * failure up to MAX_BACKOFF, drawn between 0.5x and 1.5x so the users do not retry in lockstep.
+     */
+    private static boolean backOff(int consecutiveFailures, Duration thinkTime, long deadline) {
+        long base = Math.max(MIN_BACKOFF.toMillis(), thinkTime.toMillis());
+        long millis = Math.min(MAX_BACKOFF.toMillis(), base << Math.min(consecutiveFailures - 1, 16));
+        long pause = millis / 2 + ThreadLocalRandom.current().nextLong(millis + 1);
+        return sleepUntil(Math.min(deadline, System.nanoTime() + pause * 1_000_000));
+    }
+
+    private static boolean sleepUntil(long nanoTime) {
+        long millis = (nanoTime - System.nanoTime()) / 1_000_000;
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Virtual threads when the JVM has them (looked up reflectively, the build targets Java 17).
+     */
+    private static ExecutorService newUserExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads unavailable on Java " + Runtime.version().feature()
+                + ", running one platform thread per virtual user");
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "load-user");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void printProgress(long start) {
+        long seconds = Math.max(1, (System.nanoTime() - start) / 1_000_000_000);
+        System.out.printf("Load t=%ds users=%d requests=%d (%.1f/s) errors=%d iterations=%d%n", seconds, activeUsers.get(),
+            requests.sum(), requests.sum() / (double) seconds, failedRequests.sum(), iterations.sum());
+    }
+
+    /**
+     * Throughput totals and latency percentiles per request name.
+     */
+    public Map<String, Object> summarize() {
+        double seconds = Math.max(1, elapsedMillis) / 1000.0;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("baseUrl", baseUrl);
+        summary.put("scenarios", scenarios.stream().map(Scenario::getName).collect(Collectors.toList()));
+        summary.put("users", users);
+        summary.put("elapsedMillis", elapsedMillis);
+        summary.put("requests", requests.sum());
+        summary.put("failedRequests", failedRequests.sum());
+        summary.put("requestsPerSecond", requests.sum() / seconds);
+        summary.put("iterations", iterations.sum());
+        summary.put("failedIterations", failedIterations.sum());
+        List<Map<String, Object>> byRequest = new ArrayList<>();
+        latencies.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            LatencyHistogram histogram = entry.getValue();
+            LongAdder failed = errors.get(entry.getKey());
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("request", entry.getKey());
+            row.put("count", histogram.getCount());
+            row.put("errors", failed == null ? 0 : failed.sum());
+            row.put("perSecond", histogram.getCount() / seconds);
+            row.put("p50Ms", histogram.getPercentileMicros(0.50) / 1000.0);
+            row.put("p95Ms", histogram.getPercentileMicros(0.95) / 1000.0);
+            row.put("p99Ms", histogram.getPercentileMicros(0.99) / 1000.0);
+            row.put("maxMs", histogram.getMaxMicros() / 1000.0);
+            byRequest.add(row);
+        });
+        summary.put("byRequest", byRequest);
+        return summary;
+    }
+
+    public void exportJson(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, new Json().toJson(summarize()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Unable to write the load report to " + file + ": " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void printSummary() {
+        Map<String, Object> summary = summarize();
+        StringBuilder table = new StringBuilder(String.format(
+            "Load: %d users, %d requests in %d ms (%.1f/s), %d failed; %d iterations, %d failed%n",
+            users, requests.sum(), elapsedMillis, (Double) summary.get("requestsPerSecond"),
+            failedRequests.sum(), iterations.sum(), failedIterations.sum()));
+        table.append(String.format("%-70s %8s %7s %9s %9s %9s %9s%n", "request", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map<String, Object> row : (List<Map<String, Object>>) summary.get("byRequest")) {
+            table.append(String.format("%-70s %8d %7d %9.1f %9.1f %9.1f %9.1f%n", row.get("request"), row.get("count"),
+                row.get("errors"), row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs")));
+        }
+        System.out.println(table);
+    }
+}
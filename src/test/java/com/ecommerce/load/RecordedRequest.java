@@ -0,0 +1,85 @@
+package com.ecommerce.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One storefront request captured from a browser session: a page (Document) or an XHR/fetch call,
+ * with its path relative to the storefront origin so it can be replayed against another base URL.
+ * Per-visitor values in the path and body are ${variable} placeholders once parameterized (see Correlations).
+ */
+public class RecordedRequest {
+
+    private final String type;
+    private final String method;
+    private final String path;
+    private final Map<String, String> headers;
+    private final String body;
+
+    public RecordedRequest(String type, String method, String path, Map<String, String> headers, String body) {
+        this.type = type;
+        this.method = method;
+        this.path = path;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static RecordedRequest fromJson(Map<String, Object> json) {
+        Object headers = json.get("headers");
+        Map<String, String> copy = new LinkedHashMap<>();
+        if (headers instanceof Map) {
+            ((Map<String, Object>) headers).forEach((name, value) -> copy.put(name, String.valueOf(value)));
+        }
+        Object body = json.get("body");
+        return new RecordedRequest(String.valueOf(json.get("type")), String.valueOf(json.get("method")),
+            String.valueOf(json.get("path")), copy, body == null ? null : String.valueOf(body));
+    }
+
+    public Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("type", type);
+        json.put("method", method);
+        json.put("path", path);
+        json.put("headers", headers);
+        if (body != null) {
+            json.put("body", body);
+        }
+        return json;
+    }
+
+    /**
+     * Resource type as reported by CDP: Document, XHR or Fetch.
+     */
+    public String getType() {
+        return type;
+    }
+
+    public boolean isDocument() {
+        return "Document".equals(type);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Name the request is reported under: method and parameterized path without the query string.
+     */
+    public String getName() {
+        int query = path.indexOf('?');
+        return method + " " + (query < 0 ? path : path.substring(0, query));
+    }
+}
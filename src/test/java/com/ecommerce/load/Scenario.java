@@ -0,0 +1,83 @@
+package com.ecommerce.load;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The storefront traffic of one functional test, e.g. EcommerceFlowTest.guestCheckoutFlow,
+ * stored as target/traffic/[Class.method].json by TrafficRecorder and replayed by LoadRunner.
+ */
+public class Scenario {
+
+    private static final Json JSON = new Json();
+
+    private final String name;
+    private final List<RecordedRequest> requests;
+
+    public Scenario(String name, List<RecordedRequest> requests) {
+        this.name = name;
+        this.requests = List.copyOf(requests);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<RecordedRequest> getRequests() {
+        return requests;
+    }
+
+    public void save(Path directory) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("name", name);
+        json.put("requests", requests.stream().map(RecordedRequest::toJson).collect(Collectors.toList()));
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(name + ".json"), JSON.toJson(json).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to save scenario " + name + " to " + directory, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Scenario load(Path file) {
+        try {
+            Map<String, Object> json = JSON.toType(Files.readString(file), Json.MAP_TYPE);
+            List<RecordedRequest> requests = new ArrayList<>();
+            for (Object request : (List<Object>) json.get("requests")) {
+                requests.add(RecordedRequest.fromJson((Map<String, Object>) request));
+            }
+            return new Scenario(String.valueOf(json.get("name")), requests);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read scenario " + file, e);
+        }
+    }
+
+    /**
+     * Scenarios recorded in a directory, restricted to the given names unless the list is empty.
+     */
+    public static List<Scenario> loadAll(Path directory, List<String> names) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".json"))
+                .sorted()
+                .map(Scenario::load)
+                .filter(scenario -> names.isEmpty() || names.contains(scenario.getName()))
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to list scenarios in " + directory, e);
+        }
+    }
+}
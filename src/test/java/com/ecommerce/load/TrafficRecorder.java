@@ -0,0 +1,134 @@
+package com.ecommerce.load;
+
+import com.ecommerce.config.NetworkTracker;
+import com.ecommerce.config.TestConfig;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Records the storefront requests a test's page objects trigger (pages and XHR/fetch calls to the base URL,
+ * not static assets or third parties) from CDP Network events, and saves them as a parameterized Scenario
+ * that LoadRunner can replay without a browser. Needs a CDP session (Chrome/Edge).
+ */
+public class TrafficRecorder {
+
+    private static final Map<WebDriver, TrafficRecorder> RECORDERS = Collections.synchronizedMap(new IdentityHashMap<>());
+    private static final Set<String> RECORDED_TYPES = Set.of("Document", "XHR", "Fetch");
+    private static final Set<String> RECORDED_HEADERS = Set.of("content-type", "accept", "x-requested-with");
+
+    private final List<RecordedRequest> requests = Collections.synchronizedList(new ArrayList<>());
+    private volatile String origin;
+
+    private TrafficRecorder() {
+    }
+
+    /**
+     * Starts recording the session's storefront traffic, discarding anything recorded before.
+     */
+    public static void start(WebDriver driver) {
+        TrafficRecorder recorder;
+        synchronized (RECORDERS) {
+            recorder = RECORDERS.get(driver);
+            if (recorder == null) {
+                recorder = new TrafficRecorder();
+                if (!recorder.attach(driver)) {
+                    return;
+                }
+                RECORDERS.put(driver, recorder);
+            }
+        }
+        recorder.requests.clear();
+        recorder.origin = origin(TestConfig.getBaseUrl());
+    }
+
+    /**
+     * Stops recording and, if {@code save} is set, writes what was recorded as the given scenario to trafficDir.
+     */
+    public static void stop(WebDriver driver, String scenario, boolean save) {
+        TrafficRecorder recorder = RECORDERS.get(driver);
+        if (recorder == null || recorder.origin == null) {
+            return;
+        }
+        recorder.origin = null;
+        List<RecordedRequest> recorded;
+        synchronized (recorder.requests) {
+            recorded = recorder.requests.stream().map(Correlations::parameterize).collect(Collectors.toList());
+        }
+        if (save && !recorded.isEmpty()) {
+            new Scenario(scenario, recorded).save(Paths.get(TestConfig.getTrafficDir()));
+            System.out.println("Recorded " + recorded.size() + " requests for load scenario " + scenario);
+        }
+    }
+
+    /**
+     * Drops the recorder of a session that is being quit.
+     */
+    public static void forget(WebDriver driver) {
+        RECORDERS.remove(driver);
+    }
+
+    private boolean attach(WebDriver driver) {
+        DevTools devTools = NetworkTracker.devTools(driver);
+        if (devTools == null) {
+            System.out.println("Traffic recording needs a CDP session (Chrome/Edge), nothing recorded");
+            return false;
+        }
+        try {
+            devTools.createSessionIfThereIsNotOne();
+            // Enabled here rather than relying on RequestFilter or NetworkTracker having done it for the session
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.addListener(new Event<Map<String, Object>>("Network.requestWillBeSent",
+                input -> input.read(Json.MAP_TYPE)), this::onRequest);
+            return true;
+        } catch (Exception e) {
+            System.out.println("Traffic recording unavailable: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onRequest(Map<String, Object> params) {
+        String recordingOrigin = origin;
+        if (recordingOrigin == null || !RECORDED_TYPES.contains(String.valueOf(params.get("type")))) {
+            return;
+        }
+        Map<String, Object> request = (Map<String, Object>) params.get("request");
+        String url = String.valueOf(request.get("url"));
+        if (!url.startsWith(recordingOrigin + "/")) {
+            return;
+        }
+        int fragment = url.indexOf('#');
+        String path = url.substring(recordingOrigin.length(), fragment < 0 ? url.length() : fragment);
+        Map<String, String> headers = new LinkedHashMap<>();
+        Object sent = request.get("headers");
+        if (sent instanceof Map) {
+            ((Map<String, Object>) sent).forEach((name, value) -> {
+                if (RECORDED_HEADERS.contains(name.toLowerCase())) {
+                    headers.put(name, String.valueOf(value));
+                }
+            });
+        }
+        Object body = request.get("postData");
+        requests.add(new RecordedRequest(String.valueOf(params.get("type")), String.valueOf(request.get("method")),
+            path, headers, body == null ? null : String.valueOf(body)));
+    }
+
+    private static String origin(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+}
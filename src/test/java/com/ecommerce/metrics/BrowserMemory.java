@@ -0,0 +1,142 @@
+package com.ecommerce.metrics;
+
+import com.ecommerce.config.TestConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Samples the memory of the browser processes once a second while tests run and relates it to the number of
+ * tests running at that moment, giving the memory cost of one concurrent test. The figure is kept per
+ * contextsPerBrowser value between runs, so a run with shared browsers is compared with the last run that
+ * used one browser per test (and the other way round).
+ */
+public class BrowserMemory {
+
+    private static final AtomicInteger ACTIVE_TESTS = new AtomicInteger();
+    private static final Object LOCK = new Object();
+
+    private static ScheduledExecutorService sampler;
+    private static long samples;
+    private static double perTestBytesTotal;
+    private static long peakBytes;
+    private static int peakTests;
+
+    private BrowserMemory() {
+    }
+
+    public static void start() {
+        if (!ProcessMemory.isSupported()) {
+            System.out.println("Browser memory report unavailable: process memory is only read on Linux");
+            return;
+        }
+        synchronized (LOCK) {
+            if (sampler != null) {
+                return;
+            }
+            // Each suite reports only its own samples
+            samples = 0;
+            perTestBytesTotal = 0;
+            peakBytes = 0;
+            peakTests = 0;
+            sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "browser-memory");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleAtFixedRate(BrowserMemory::sample, 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    public static void testStarted() {
+        ACTIVE_TESTS.incrementAndGet();
+    }
+
+    /**
+     * Only for a test that went through {@link #testStarted()}.
+     */
+    public static void testFinished() {
+        ACTIVE_TESTS.decrementAndGet();
+    }
+
+    /**
+     * Stops sampling, prints memory per concurrent test next to the figure of the other mode and saves it.
+     */
+    public static void stopAndReport() {
+        synchronized (LOCK) {
+            if (sampler == null) {
+                return;
+            }
+            sampler.shutdownNow();
+            sampler = null;
+            if (samples == 0) {
+                return;
+            }
+            int contexts = TestConfig.getContextsPerBrowser();
+            double perTestMb = perTestBytesTotal / samples / (1024 * 1024);
+            System.out.printf("Browser memory: %.0f MB per concurrent test (contextsPerBrowser=%d), peak %.0f MB with %d tests running%n",
+                perTestMb, contexts, peakBytes / (1024.0 * 1024), peakTests);
+            Path file = Paths.get(TestConfig.getBrowserMemoryFile());
+            Properties history = load(file);
+            String baseline = contexts == 1 ? null : history.getProperty("contextsPerBrowser.1");
+            if (contexts == 1) {
+                history.stringPropertyNames().stream().filter(key -> !key.equals("contextsPerBrowser.1")).sorted().forEach(key ->
+                    System.out.printf("  last run with %s: %s MB per concurrent test%n", key.replace('.', '='), history.getProperty(key)));
+            } else if (baseline != null) {
+                double saved = 1 - perTestMb / Double.parseDouble(baseline);
+                System.out.printf("  one browser per test (last run): %s MB per concurrent test, %.0f%% saved%n", baseline, saved * 100);
+            }
+            history.setProperty("contextsPerBrowser." + contexts, String.format(Locale.ROOT, "%.0f", perTestMb));
+            save(file, history);
+        }
+    }
+
+    private static void sample() {
+        int active = ACTIVE_TESTS.get();
+        if (active <= 0) {
+            return;
+        }
+        long bytes = ProcessMemory.descendantsBytes();
+        synchronized (LOCK) {
+            samples++;
+            perTestBytesTotal += (double) bytes / active;
+            if (bytes > peakBytes) {
+                peakBytes = bytes;
+                peakTests = active;
+            }
+        }
+    }
+
+    private static Properties load(Path file) {
+        Properties properties = new Properties();
+        if (Files.isReadable(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.out.println("Ignoring unreadable browser memory history " + file + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    private static void save(Path file, Properties properties) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                properties.store(out, "Browser memory per concurrent test (MB) by contextsPerBrowser");
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to save browser memory history to " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.ecommerce.metrics;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Records the latency of every WebDriver command issued through an instrumented driver,
+ * broken down by command, by test method and by page-object method (call site).
+ * Drivers are wrapped by {@link #instrument(WebDriver)}; the current test is set by CommandMetricsListener.
+ */
+public class CommandMetrics implements WebDriverListener {
+
+    private static final CommandMetrics LISTENER = new CommandMetrics();
+    private static final String PAGES_PACKAGE = "com.ecommerce.pages.";
+    // Calls answered by the client without a round trip to the driver
+    private static final Set<String> LOCAL_CALLS = Set.of(
+        "manage", "timeouts", "navigate", "switchTo", "window", "getWrappedDriver", "getWrappedElement",
+        "getDevTools", "maybeGetDevTools", "toString", "hashCode", "equals");
+
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<Long>> STARTS = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<Span> PAGE_SPAN = new ThreadLocal<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static final Map<String, LatencyHistogram> BY_COMMAND = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> BY_TEST = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> BY_CALL_SITE = new ConcurrentHashMap<>();
+
+    private CommandMetrics() {
+    }
+
+    public static WebDriver instrument(WebDriver driver) {
+        return new EventFiringDecorator<>(LISTENER).decorate(driver);
+    }
+
+    public static void setCurrentTest(String test) {
+        CURRENT_TEST.set(test);
+    }
+
+    public static void clearCurrentTest() {
+        CURRENT_TEST.remove();
+        closePageSpan();
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!LOCAL_CALLS.contains(method.getName())) {
+            STARTS.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method);
+    }
+
+    private static void finish(Method method) {
+        if (LOCAL_CALLS.contains(method.getName())) {
+            return;
+        }
+        Long start = STARTS.get().poll();
+        if (start == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        String command = method.getName();
+        histogram(BY_COMMAND, command).record(elapsed);
+        String test = CURRENT_TEST.get();
+        if (test != null) {
+            histogram(BY_TEST, test + " " + command).record(elapsed);
+        }
+        String callSite = pageObjectCallSite();
+        if (callSite != null) {
+            histogram(BY_CALL_SITE, callSite + " " + command).record(elapsed);
+        }
+        trackPageSpan(callSite, start, start + elapsed);
+    }
+
+    /**
+     * Page-object methods are timed from their first command to their last: consecutive commands from the same
+     * page method extend its span, and a command from elsewhere (or the end of the test) records it as a step.
+     */
+    private static void trackPageSpan(String callSite, long start, long end) {
+        Span span = PAGE_SPAN.get();
+        if (span != null && span.callSite.equals(callSite)) {
+            span.end = end;
+            return;
+        }
+        closePageSpan();
+        if (callSite != null) {
+            PAGE_SPAN.set(new Span(callSite, start, end));
+        }
+    }
+
+    private static void closePageSpan() {
+        Span span = PAGE_SPAN.get();
+        if (span != null) {
+            PAGE_SPAN.remove();
+            StepTimings.record(span.callSite, span.end - span.start);
+        }
+    }
+
+    /**
+     * Outermost page-object frame on the stack, i.e. the page method the test called (e.g. "HomePage.search").
+     */
+    private static String pageObjectCallSite() {
+        return STACK_WALKER.walk(frames -> frames
+            .filter(frame -> frame.getClassName().startsWith(PAGES_PACKAGE))
+            .reduce((first, second) -> second)
+            .map(frame -> frame.getClassName().substring(PAGES_PACKAGE.length()).replaceAll("\\$.*", "")
+                + "." + frame.getMethodName().replaceAll("^lambda\\$(\\w+)\\$\\d+$", "$1"))
+            .orElse(null));
+    }
+
+    private static LatencyHistogram histogram(Map<String, LatencyHistogram> histograms, String key) {
+        return histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    /**
+     * Writes all histograms as JSON (count, total, p50/p95/p99/max in ms per key).
+     */
+    public static void exportJson(Path file) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("byCommand", summarize(BY_COMMAND));
+        report.put("byTest", summarize(BY_TEST));
+        report.put("byCallSite", summarize(BY_CALL_SITE));
+        report.put("steps", StepTimings.summarize());
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Unable to write command metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prints per-command percentiles and the slowest page-object call sites.
+     */
+    public static void printSummary(int slowestCallSites) {
+        if (BY_COMMAND.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder("WebDriver command latency (ms)\n");
+        table.append(String.format("%-28s %8s %9s %9s %9s %9s%n", "command", "count", "p50", "p95", "p99", "max"));
+        BY_COMMAND.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().getTotalMicros()).reversed())
+            .forEach(e -> table.append(row(e.getKey(), e.getValue())));
+        table.append(String.format("%nSlowest call sites (by p95)%n"));
+        BY_CALL_SITE.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().getPercentileMicros(0.95)).reversed())
+            .limit(slowestCallSites)
+            .forEach(e -> table.append(row(e.getKey(), e.getValue())));
+        System.out.println(table);
+    }
+
+    private static String row(String key, LatencyHistogram histogram) {
+        return String.format("%-28s %8d %9.1f %9.1f %9.1f %9.1f%n", key, histogram.getCount(),
+            histogram.getPercentileMicros(0.50) / 1000.0, histogram.getPercentileMicros(0.95) / 1000.0,
+            histogram.getPercentileMicros(0.99) / 1000.0, histogram.getMaxMicros() / 1000.0);
+    }
+
+    private static List<Map<String, Object>> summarize(Map<String, LatencyHistogram> histograms) {
+        return histograms.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .map(e -> {
+                LatencyHistogram histogram = e.getValue();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("key", e.getKey());
+                entry.put("count", histogram.getCount());
+                entry.put("totalMs", histogram.getTotalMicros() / 1000.0);
+                entry.put("p50Ms", histogram.getPercentileMicros(0.50) / 1000.0);
+                entry.put("p95Ms", histogram.getPercentileMicros(0.95) / 1000.0);
+                entry.put("p99Ms", histogram.getPercentileMicros(0.99) / 1000.0);
+                entry.put("maxMs", histogram.getMaxMicros() / 1000.0);
+                return entry;
+            })
+            .collect(Collectors.toList());
+    }
+
+    private static final class Span {
+        private final String callSite;
+        private final long start;
+        private long end;
+
+        private Span(String callSite, long start, long end) {
+            this.callSite = callSite;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
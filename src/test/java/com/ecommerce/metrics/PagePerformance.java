@@ -0,0 +1,203 @@
+package com.ecommerce.metrics;
+
+import com.ecommerce.config.TestConfig;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Front-end performance of the storefront as seen by the page objects: Navigation Timing, Resource Timing,
+ * LCP, CLS and long tasks, read in one executeAsyncScript call once a page object knows its page is loaded.
+ * Each value is checked against the budgets configured as perfBudget.[Page.]metric and aggregated per page
+ * into the storefront performance report; perfBudgetMode decides whether an exceeded budget fails the test.
+ */
+public class PagePerformance {
+
+    /**
+     * Metrics read from the page, in report order.
+     */
+    public static final List<String> METRICS = List.of(
+        "ttfbMs", "domContentLoadedMs", "loadMs", "lcpMs", "cls", "longTasks", "longTaskMs", "resourceCount", "transferKb");
+
+    private static final String CAPTURE_SCRIPT =
+        "var callback = arguments[arguments.length - 1];"
+        + "var result = { cls: 0, longTasks: 0, longTaskMs: 0 };"
+        + "var nav = performance.getEntriesByType('navigation')[0];"
+        + "if (nav) {"
+        + "  result.ttfbMs = nav.responseStart - nav.requestStart;"
+        + "  result.domContentLoadedMs = nav.domContentLoadedEventEnd;"
+        + "  if (nav.loadEventEnd > 0) result.loadMs = nav.loadEventEnd;"
+        + "}"
+        + "var resources = performance.getEntriesByType('resource'), bytes = nav ? nav.transferSize || 0 : 0;"
+        + "for (var i = 0; i < resources.length; i++) bytes += resources[i].transferSize || 0;"
+        + "result.resourceCount = resources.length;"
+        + "result.transferKb = bytes / 1024;"
+        + "var observers = [];"
+        + "function observe(type, handle) {"
+        + "  try {"
+        + "    var o = new PerformanceObserver(function (list) { list.getEntries().forEach(handle); });"
+        + "    o.observe({ type: type, buffered: true });"
+        + "    observers.push([o, handle]);"
+        + "  } catch (e) {}"
+        + "}"
+        + "observe('largest-contentful-paint', function (e) { result.lcpMs = e.renderTime || e.loadTime || e.startTime; });"
+        + "observe('layout-shift', function (e) { if (!e.hadRecentInput) result.cls += e.value; });"
+        + "observe('longtask', function (e) { result.longTasks++; result.longTaskMs += e.duration; });"
+        // Buffered entries are delivered in a later task; takeRecords() picks up whatever is still queued
+        + "setTimeout(function () {"
+        + "  observers.forEach(function (pair) { pair[0].takeRecords().forEach(pair[1]); pair[0].disconnect(); });"
+        + "  callback(result);"
+        + "}, 50);";
+
+    private static final Map<String, Map<String, List<Double>>> SAMPLES = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> VIOLATIONS = new ConcurrentHashMap<>();
+    // Document last measured per session, so calling isLoaded() twice on one page records it once
+    private static final Map<WebDriver, Double> LAST_DOCUMENT = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private PagePerformance() {
+    }
+
+    /**
+     * Measures the current document for the given page object and checks its budgets.
+     * Does nothing when pagePerformanceEnabled is false or the document was already measured.
+     *
+     * @throws AssertionError if a budget is exceeded and perfBudgetMode is "fail"
+     */
+    @SuppressWarnings("unchecked")
+    public static void capture(WebDriver driver, String page) {
+        if (!TestConfig.isPagePerformanceEnabled()) {
+            return;
+        }
+        Map<String, Object> result;
+        try {
+            // A synchronous read identifies the document, so one already measured costs a single round trip
+            // instead of the async capture and its observer delay
+            Double document = toDouble(((JavascriptExecutor) driver).executeScript("return performance.timeOrigin;"));
+            if (document != null && document.equals(LAST_DOCUMENT.put(driver, document))) {
+                return;
+            }
+            result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(CAPTURE_SCRIPT);
+        } catch (Exception e) {
+            System.out.println("Performance metrics unavailable for " + page + ": " + e.getMessage());
+            return;
+        }
+        List<String> exceeded = new ArrayList<>();
+        Map<String, List<Double>> samples = SAMPLES.computeIfAbsent(page, key -> new ConcurrentHashMap<>());
+        for (String metric : METRICS) {
+            Double value = toDouble(result.get(metric));
+            if (value == null) {
+                continue;
+            }
+            samples.computeIfAbsent(metric, key -> Collections.synchronizedList(new ArrayList<>())).add(value);
+            Double budget = TestConfig.getPerfBudget(page, metric);
+            if (budget != null && value > budget) {
+                exceeded.add(String.format("%s=%.2f (budget %.2f)", metric, value, budget));
+                VIOLATIONS.computeIfAbsent(page + "." + metric, key -> new LongAdder()).increment();
+            }
+        }
+        if (exceeded.isEmpty()) {
+            return;
+        }
+        String message = page + " exceeded its performance budget: " + String.join(", ", exceeded);
+        if ("fail".equalsIgnoreCase(TestConfig.getPerfBudgetMode())) {
+            throw new AssertionError(message);
+        }
+        System.out.println("WARN " + message);
+    }
+
+    /**
+     * Per-page percentiles of every metric plus budget violation counts.
+     */
+    public static Map<String, Object> summarize() {
+        Map<String, Object> pages = new LinkedHashMap<>();
+        SAMPLES.keySet().stream().sorted().forEach(page -> {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            for (String metric : METRICS) {
+                List<Double> values = SAMPLES.get(page).get(metric);
+                if (values == null || values.isEmpty()) {
+                    continue;
+                }
+                List<Double> sorted;
+                synchronized (values) {
+                    sorted = new ArrayList<>(values);
+                }
+                Collections.sort(sorted);
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", sorted.size());
+                stats.put("p50", percentile(sorted, 0.50));
+                stats.put("p75", percentile(sorted, 0.75));
+                stats.put("p95", percentile(sorted, 0.95));
+                stats.put("max", sorted.get(sorted.size() - 1));
+                stats.put("budget", TestConfig.getPerfBudget(page, metric));
+                LongAdder violations = VIOLATIONS.get(page + "." + metric);
+                stats.put("violations", violations == null ? 0 : violations.sum());
+                metrics.put(metric, stats);
+            }
+            pages.put(page, metrics);
+        });
+        return pages;
+    }
+
+    /**
+     * Writes the storefront performance report as JSON.
+     */
+    public static void exportJson(Path file) {
+        if (SAMPLES.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, new Json().toJson(summarize()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Unable to write the storefront performance report to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prints p75 per page and metric (the percentile Core Web Vitals are assessed at), flagging exceeded budgets.
+     */
+    @SuppressWarnings("unchecked")
+    public static void printSummary() {
+        Map<String, Object> pages = summarize();
+        if (pages.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder("Storefront performance (p75 per page)\n");
+        table.append(String.format("%-20s", "page"));
+        METRICS.forEach(metric -> table.append(String.format(" %18s", metric)));
+        table.append('\n');
+        pages.forEach((page, metrics) -> {
+            table.append(String.format("%-20s", page));
+            for (String metric : METRICS) {
+                Map<String, Object> stats = (Map<String, Object>) ((Map<String, Object>) metrics).get(metric);
+                String cell = stats == null ? "-" : String.format("%.2f", (Double) stats.get("p75"))
+                    + (((Long) stats.get("violations")) > 0 ? " !" + stats.get("violations") : "");
+                table.append(String.format(" %18s", cell));
+            }
+            table.append('\n');
+        });
+        System.out.println(table);
+    }
+
+    private static double percentile(List<Double> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static Double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Memory of the processes this JVM started: driver services and the browser process trees under them.
+ * Uses the proportional set size from /proc (Linux), so pages Chrome processes share are counted once
+ * instead of once per renderer; falls back to the resident set size when PSS is not available.
+ */
+public class ProcessMemory {
+
+    private ProcessMemory() {
+    }
+
+    /**
+     * Whether process memory can be read on this platform.
+     */
+    public static boolean isSupported() {
+        return Files.isReadable(Paths.get("/proc/self/status"));
+    }
+
+    /**
+     * Total memory of every descendant process of the JVM, in bytes (0 when unsupported).
+     */
+    public static long descendantsBytes() {
+        if (!isSupported()) {
+            return 0;
+        }
+        return ProcessHandle.current().descendants().mapToLong(process -> processBytes(process.pid())).sum();
+    }
+
+    /**
+     * Memory of one process in bytes, or 0 if it has exited meanwhile.
+     */
+    public static long processBytes(long pid) {
+        long pss = readKb(Paths.get("/proc", String.valueOf(pid), "smaps_rollup"), "Pss:");
+        return 1024 * (pss >= 0 ? pss : Math.max(0, readKb(Paths.get("/proc", String.valueOf(pid), "status"), "VmRSS:")));
+    }
+
+    private static long readKb(Path file, String field) {
+        try {
+            List<String> lines = Files.readAllLines(file);
+            for (String line : lines) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Process exited or the file is not readable
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,351 @@
+package com.ecommerce.metrics;
+
+import com.ecommerce.config.TestConfig;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only history of the suite's timings: one JSON line per run with the commit, the environment, the mean
+ * duration of every test and of every step (framework steps, configuration methods and page-object methods).
+ * Each run is compared with the last runs made in the same environment; a metric is a regression when it is
+ * slower than the baseline median by more than the relative and absolute thresholds and by more than three
+ * robust standard deviations (1.4826 x the median absolute deviation), so ordinary noise is not reported.
+ */
+public class RunHistory {
+
+    private static final double Z_THRESHOLD = 3.0;
+    private static final Map<String, long[]> TESTS = new ConcurrentHashMap<>();
+
+    private RunHistory() {
+    }
+
+    /**
+     * Adds one attempt of a test to the current run.
+     */
+    public static void recordTest(String test, long millis, boolean passed) {
+        long[] totals = TESTS.computeIfAbsent(test, key -> new long[3]);
+        synchronized (totals) {
+            totals[0]++;
+            totals[1] += millis;
+            if (!passed) {
+                totals[2]++;
+            }
+        }
+    }
+
+    /**
+     * The current run as stored in the history file.
+     */
+    public static Map<String, Object> currentRun() {
+        Map<String, Object> environment = environment();
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("timestamp", Instant.now().toString());
+        run.put("commit", git("GIT_COMMIT", "rev-parse", "HEAD"));
+        run.put("branch", git("GIT_BRANCH", "rev-parse", "--abbrev-ref", "HEAD"));
+        run.put("fingerprint", fingerprint(environment));
+        run.put("environment", environment);
+        Map<String, Object> tests = new TreeMap<>();
+        TESTS.forEach((test, totals) -> {
+            synchronized (totals) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("count", totals[0]);
+                entry.put("meanMs", (double) totals[1] / totals[0]);
+                entry.put("failures", totals[2]);
+                tests.put(test, entry);
+            }
+        });
+        run.put("tests", tests);
+        Map<String, Object> steps = new TreeMap<>();
+        for (Map<String, Object> step : StepTimings.summarize()) {
+            long count = ((Number) step.get("count")).longValue();
+            if (count == 0) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("count", count);
+            entry.put("meanMs", ((Number) step.get("totalMs")).doubleValue() / count);
+            entry.put("p95Ms", step.get("p95Ms"));
+            steps.put((String) step.get("step"), entry);
+        }
+        run.put("steps", steps);
+        return run;
+    }
+
+    /**
+     * Appends a run as one line, so concurrent or interrupted runs never corrupt the earlier ones.
+     */
+    public static void append(Path file, Map<String, Object> run) {
+        String line = new Json().toJson(run).replaceAll("\\s*\\n\\s*", " ") + System.lineSeparator();
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            Files.write(file, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Unable to append the run to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * All stored runs, oldest first; unreadable lines are skipped.
+     */
+    public static List<Map<String, Object>> load(Path file) {
+        List<Map<String, Object>> runs = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            return runs;
+        }
+        try {
+            Json json = new Json();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    runs.add(json.toType(line, Json.MAP_TYPE));
+                } catch (RuntimeException e) {
+                    System.out.println("Skipping unreadable run in " + file + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to read the run history " + file + ": " + e.getMessage());
+        }
+        return runs;
+    }
+
+    /**
+     * Compares every metric of a run with the same metric in the last baselineRuns runs sharing its environment.
+     * Metrics with fewer than minBaselineRuns earlier values are listed without a verdict.
+     */
+    public static List<Trend> compare(Map<String, Object> run, List<Map<String, Object>> history, int baselineRuns,
+                                      int minBaselineRuns, double threshold, double minMillis) {
+        List<Map<String, Object>> comparable = history.stream()
+            .filter(previous -> run.get("fingerprint").equals(previous.get("fingerprint")))
+            .collect(Collectors.toList());
+        List<Map<String, Object>> baseline = comparable.subList(Math.max(0, comparable.size() - baselineRuns), comparable.size());
+        List<Trend> trends = new ArrayList<>();
+        metrics(run).forEach((metric, current) -> {
+            List<Double> values = new ArrayList<>();
+            for (Map<String, Object> previous : baseline) {
+                Double value = metrics(previous).get(metric);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+            trends.add(new Trend(metric, values, current, minBaselineRuns, threshold, minMillis));
+        });
+        trends.sort(Comparator.comparing(Trend::isRegression).reversed()
+            .thenComparing(Comparator.comparingDouble(Trend::getChange).reversed()));
+        return trends;
+    }
+
+    public static void printReport(List<Trend> trends, int shown) {
+        List<Trend> regressions = trends.stream().filter(Trend::isRegression).collect(Collectors.toList());
+        long compared = trends.stream().filter(trend -> !Double.isNaN(trend.getMedian())).count();
+        StringBuilder report = new StringBuilder("Run history: " + compared + "/" + trends.size()
+            + " metrics compared with their baseline, " + regressions.size() + " regression(s)\n");
+        report.append(String.format("%-58s %9s %9s %8s %6s  %s%n", "metric", "median", "current", "change", "z", "trend (ms)"));
+        trends.stream()
+            .filter(trend -> !Double.isNaN(trend.getMedian()))
+            .limit(Math.max(shown, regressions.size()))
+            .forEach(trend -> report.append(String.format("%-58s %9.1f %9.1f %+7.0f%% %6s  %s%s%n", trend.getMetric(),
+                trend.getMedian(), trend.getCurrent(), trend.getChange() * 100,
+                Double.isInfinite(trend.getZScore()) ? "inf" : String.format("%.1f", trend.getZScore()),
+                trend.getBaseline().stream().map(value -> String.format("%.0f", value)).collect(Collectors.joining(" ")),
+                String.format(" | %.0f%s", trend.getCurrent(), trend.isRegression() ? "  REGRESSION" : ""))));
+        System.out.println(report);
+    }
+
+    /**
+     * Writes the trend report as JSON: the run compared and, per metric, its baseline series and verdict.
+     */
+    public static void exportJson(Path file, Map<String, Object> run, List<Trend> trends) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", run.get("timestamp"));
+        report.put("commit", run.get("commit"));
+        report.put("fingerprint", run.get("fingerprint"));
+        report.put("regressions", trends.stream().filter(Trend::isRegression).map(Trend::getMetric).collect(Collectors.toList()));
+        report.put("metrics", trends.stream().map(Trend::toMap).collect(Collectors.toList()));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Unable to write the run trend report to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mean duration in ms of every test ("test Class.method") and step ("step name") of a stored run.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> metrics(Map<String, Object> run) {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        for (String kind : List.of("tests", "steps")) {
+            Object entries = run.get(kind);
+            if (!(entries instanceof Map)) {
+                continue;
+            }
+            ((Map<String, Object>) entries).forEach((name, entry) -> {
+                Object mean = entry instanceof Map ? ((Map<String, Object>) entry).get("meanMs") : null;
+                if (mean instanceof Number) {
+                    metrics.put(kind.substring(0, 4) + " " + name, ((Number) mean).doubleValue());
+                }
+            });
+        }
+        return metrics;
+    }
+
+    private static Map<String, Object> environment() {
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("browser", TestConfig.getBrowser());
+        environment.put("target", TestConfig.isStubEnabled() ? "stub" : URI.create(TestConfig.getBaseUrl()).getHost());
+        if (TestConfig.isStubEnabled()) {
+            environment.put("stubLatencyMillis", TestConfig.getStubLatencyMillis());
+        }
+        environment.put("parallelThreads", TestConfig.getParallelThreads());
+        environment.put("contextsPerBrowser", TestConfig.getContextsPerBrowser());
+        environment.put("driverPool", TestConfig.isDriverPoolEnabled());
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        environment.put("cpus", Runtime.getRuntime().availableProcessors());
+        environment.put("java", System.getProperty("java.version"));
+        environment.put("ci", System.getenv("CI") != null);
+        return environment;
+    }
+
+    /**
+     * The settings that change timings: runs are only compared with runs sharing them. The Java version is
+     * recorded but left out, so a JDK upgrade shows up as a regression instead of resetting the baseline.
+     */
+    private static String fingerprint(Map<String, Object> environment) {
+        return environment.entrySet().stream()
+            .filter(e -> !e.getKey().equals("java"))
+            .map(e -> e.getKey() + "=" + e.getValue())
+            .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Value of the CI variable when set (GITHUB_SHA / GITHUB_REF_NAME on GitHub Actions), else asks git.
+     */
+    private static String git(String variable, String... command) {
+        String github = variable.equals("GIT_COMMIT") ? "GITHUB_SHA" : "GITHUB_REF_NAME";
+        for (String name : List.of(variable, github)) {
+            String value = System.getenv(name);
+            if (value != null && !value.isBlank()) {
+                return value.trim();
+            }
+        }
+        List<String> arguments = new ArrayList<>();
+        arguments.add("git");
+        arguments.addAll(List.of(command));
+        try {
+            Process process = new ProcessBuilder(arguments).redirectErrorStream(true).start();
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return "unknown";
+            }
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return process.exitValue() == 0 && !output.isEmpty() ? output : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+
+    /**
+     * One metric of the run against its baseline.
+     */
+    public static class Trend {
+        private final String metric;
+        private final List<Double> baseline;
+        private final double current;
+        private final double median;
+        private final double zScore;
+        private final boolean regression;
+
+        Trend(String metric, List<Double> baseline, double current, int minBaselineRuns, double threshold, double minMillis) {
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+            if (baseline.size() < Math.max(1, minBaselineRuns)) {
+                this.median = Double.NaN;
+                this.zScore = Double.NaN;
+                this.regression = false;
+                return;
+            }
+            this.median = median(baseline);
+            double sigma = 1.4826 * median(baseline.stream().map(value -> Math.abs(value - median)).collect(Collectors.toList()));
+            double delta = current - median;
+            // A perfectly stable baseline has no spread: any change beyond the thresholds is then significant
+            this.zScore = sigma > 0 ? delta / sigma : (delta > 0 ? Double.POSITIVE_INFINITY : 0);
+            this.regression = delta > median * threshold && delta >= minMillis && zScore >= Z_THRESHOLD;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        public List<Double> getBaseline() {
+            return baseline;
+        }
+
+        public double getCurrent() {
+            return current;
+        }
+
+        public double getMedian() {
+            return median;
+        }
+
+        /**
+         * Relative change against the baseline median (0.25 = 25% slower), 0 without baseline.
+         */
+        public double getChange() {
+            return Double.isNaN(median) || median == 0 ? 0 : (current - median) / median;
+        }
+
+        public double getZScore() {
+            return zScore;
+        }
+
+        public boolean isRegression() {
+            return regression;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("metric", metric);
+            entry.put("baselineMs", baseline);
+            entry.put("currentMs", current);
+            if (!Double.isNaN(median)) {
+                entry.put("medianMs", median);
+                entry.put("change", getChange());
+                entry.put("zScore", Double.isInfinite(zScore) ? null : zScore);
+            }
+            entry.put("regression", regression);
+            return entry;
+        }
+
+        private static double median(List<Double> values) {
+            List<Double> sorted = values.stream().sorted().collect(Collectors.toList());
+            int middle = sorted.size() / 2;
+            return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RunHistoryTest {
+
+    private static RunHistory.Trend trend(double current, Double... baseline) {
+        return new RunHistory.Trend("step CheckoutPage.selectShippingMethodAndContinue", List.of(baseline), current, 3, 0.2, 50);
+    }
+
+    @Test(description = "Un ralentissement net au-delà du bruit est une régression")
+    public void flagsSlowdownBeyondNoise() {
+        RunHistory.Trend trend = trend(600, 308.0, 314.0, 306.0, 309.0, 303.0, 312.0);
+
+        Assert.assertTrue(trend.isRegression(), "Le passage de ~308 ms à 600 ms doit être signalé.");
+        Assert.assertEquals(trend.getMedian(), 308.5, 1e-9);
+        // MAD of the baseline is 3.0 ms, so sigma = 1.4826 * 3 and z = (600 - 308.5) / sigma
+        Assert.assertEquals(trend.getZScore(), 291.5 / (1.4826 * 3.0), 1e-6);
+        Assert.assertEquals(trend.getChange(), 291.5 / 308.5, 1e-9);
+    }
+
+    @Test(description = "Un écart dans la dispersion habituelle n'est pas une régression")
+    public void ignoresChangeWithinSpread() {
+        // Median 150, MAD 50: +110 ms is +73 % but only about 1.5 robust standard deviations
+        RunHistory.Trend trend = trend(260, 100.0, 200.0, 150.0, 300.0, 120.0);
+
+        Assert.assertFalse(trend.isRegression());
+        Assert.assertEquals(trend.getZScore(), 110 / (1.4826 * 50), 1e-6);
+    }
+
+    @Test(description = "Les seuils relatif et absolu s'appliquent même à un écart significatif")
+    public void requiresRelativeAndAbsoluteThresholds() {
+        Assert.assertFalse(trend(1100, 1000.0, 1000.0, 1001.0, 999.0, 1000.0).isRegression(),
+            "+10 % est sous le seuil relatif de 20 %.");
+        Assert.assertFalse(trend(30, 10.0, 10.0, 10.0, 10.0, 10.0).isRegression(),
+            "+20 ms est sous le seuil absolu de 50 ms.");
+    }
+
+    @Test(description = "Une référence parfaitement stable rend tout dépassement des seuils significatif")
+    public void flagsAnyThresholdBreachOnZeroSpread() {
+        RunHistory.Trend slower = trend(400, 200.0, 200.0, 200.0);
+        RunHistory.Trend faster = trend(100, 200.0, 200.0, 200.0);
+
+        Assert.assertTrue(slower.isRegression());
+        Assert.assertTrue(Double.isInfinite(slower.getZScore()));
+        Assert.assertFalse(faster.isRegression());
+        Assert.assertEquals(faster.getZScore(), 0.0);
+    }
+
+    @Test(description = "Sans assez de runs de référence, pas de verdict")
+    public void needsMinimumBaseline() {
+        RunHistory.Trend trend = trend(900, 100.0, 110.0);
+
+        Assert.assertFalse(trend.isRegression());
+        Assert.assertTrue(Double.isNaN(trend.getMedian()));
+        Assert.assertEquals(trend.getChange(), 0.0);
+    }
+
+    @Test(description = "La référence ne prend que les derniers runs du même environnement")
+    public void comparesWithRecentRunsOfSameEnvironment() {
+        List<Map<String, Object>> history = new ArrayList<>();
+        history.add(run("chrome", 5000));
+        for (double mean : new double[] {100, 102, 98, 101}) {
+            history.add(run("chrome", mean));
+            history.add(run("firefox", 900));
+        }
+
+        List<RunHistory.Trend> trends = RunHistory.compare(run("chrome", 300), history, 3, 3, 0.2, 50);
+
+        Assert.assertEquals(trends.size(), 1);
+        Assert.assertEquals(trends.get(0).getMetric(), "test EcommerceFlowTest.guestCheckoutFlow");
+        Assert.assertEquals(trends.get(0).getBaseline(), List.of(102.0, 98.0, 101.0),
+            "Seuls les 3 derniers runs chrome doivent servir de référence.");
+        Assert.assertTrue(trends.get(0).isRegression());
+    }
+
+    @Test(description = "Les runs ajoutés au fichier sont relus, une ligne illisible est ignorée")
+    public void appendsAndLoadsRuns() throws IOException {
+        Path file = Files.createTempFile("runs", ".jsonl");
+        try {
+            RunHistory.append(file, run("chrome", 100));
+            Files.write(file, "{not json\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            RunHistory.append(file, run("chrome", 120));
+
+            List<Map<String, Object>> runs = RunHistory.load(file);
+
+            Assert.assertEquals(runs.size(), 2);
+            Assert.assertEquals(Files.readAllLines(file).size(), 3, "Chaque run doit tenir sur une seule ligne.");
+            List<RunHistory.Trend> trends = RunHistory.compare(runs.get(1), runs.subList(0, 1), 10, 1, 0.2, 50);
+            Assert.assertEquals(trends.get(0).getBaseline(), List.of(100.0));
+            Assert.assertEquals(trends.get(0).getCurrent(), 120.0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Map<String, Object> run(String browser, double meanMs) {
+        Map<String, Object> test = new LinkedHashMap<>();
+        test.put("count", 1);
+        test.put("meanMs", meanMs);
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("fingerprint", "browser=" + browser);
+        run.put("tests", Map.of("EcommerceFlowTest.guestCheckoutFlow", test));
+        run.put("steps", Map.of());
+        return run;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.metrics;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Duration histograms of named framework steps (e.g. "BaseTest.consent"), so time spent outside
+ * individual WebDriver commands is reported per run and regressions show up.
+ */
+public class StepTimings {
+
+    private static final Map<String, LatencyHistogram> STEPS = new ConcurrentHashMap<>();
+
+    private StepTimings() {
+    }
+
+    public static void record(String step, long nanos) {
+        STEPS.computeIfAbsent(step, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    public static LatencyHistogram get(String step) {
+        return STEPS.get(step);
+    }
+
+    /**
+     * Per-step count, total and percentiles in ms, for the JSON metrics export.
+     */
+    public static List<Map<String, Object>> summarize() {
+        return STEPS.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .map(e -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("step", e.getKey());
+                entry.put("count", e.getValue().getCount());
+                entry.put("totalMs", e.getValue().getTotalMicros() / 1000.0);
+                entry.put("p50Ms", e.getValue().getPercentileMicros(0.50) / 1000.0);
+                entry.put("p95Ms", e.getValue().getPercentileMicros(0.95) / 1000.0);
+                entry.put("maxMs", e.getValue().getMaxMicros() / 1000.0);
+                return entry;
+            })
+            .collect(Collectors.toList());
+    }
+
+    public static void printSummary() {
+        if (STEPS.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder("Framework step durations (ms)\n");
+        table.append(String.format("%-48s %8s %10s %9s %9s%n", "step", "count", "total", "p50", "p95"));
+        STEPS.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().getTotalMicros()).reversed())
+            .forEach(e -> table.append(String.format("%-48s %8d %10.1f %9.1f %9.1f%n", e.getKey(), e.getValue().getCount(),
+                e.getValue().getTotalMicros() / 1000.0, e.getValue().getPercentileMicros(0.50) / 1000.0,
+                e.getValue().getPercentileMicros(0.95) / 1000.0)));
+        System.out.println(table);
+    }
+}
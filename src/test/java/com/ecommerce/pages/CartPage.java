@@ -1,6 +1,8 @@
 package com.ecommerce.pages;
 
+import com.ecommerce.metrics.PagePerformance;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -10,6 +12,7 @@ public class CartPage {
     private final WebDriverWait wait;
 
     private final By cartItems = By.cssSelector("tbody.cart.item, tr.item-info, li.item");
+    private final By emptyCartMessage = By.cssSelector("div.cart-empty");
     private final By proceedToCheckoutButton = By.cssSelector("button[data-role='proceed-to-checkout'], button.checkout, li.checkout button");
 
     public CartPage(WebDriver driver, WebDriverWait wait) {
@@ -17,8 +20,20 @@ public class CartPage {
         this.wait = wait;
     }
 
+    /**
+     * Waits for the first cart row or the empty-cart message, so an empty cart is reported as soon as it renders.
+     */
     public boolean hasItems() {
-        return !driver.findElements(cartItems).isEmpty();
+        try {
+            wait.until(ExpectedConditions.or(
+                ExpectedConditions.presenceOfElementLocated(cartItems),
+                ExpectedConditions.presenceOfElementLocated(emptyCartMessage)));
+            PagePerformance.capture(driver, "CartPage");
+            // Implicit waits are off, so this only reads what is rendered
+            return !driver.findElements(cartItems).isEmpty();
+        } catch (TimeoutException e) {
+            return false;
+        }
     }
 
     public CheckoutPage proceedToCheckout() {
@@ -1,5 +1,8 @@
 package com.ecommerce.pages;
 
+import com.ecommerce.config.NetworkTracker;
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.metrics.PagePerformance;
 import org.openqa.selenium.By;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
@@ -8,7 +11,10 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CheckoutPage {
     private final WebDriver driver;
@@ -42,10 +48,14 @@ public class CheckoutPage {
     public boolean isLoaded() {
         try {
             // Try to find either the email field or the shipping form container
-            return wait.until(ExpectedConditions.or(
+            boolean loaded = wait.until(ExpectedConditions.or(
                 ExpectedConditions.visibilityOfElementLocated(emailField),
                 ExpectedConditions.visibilityOfElementLocated(By.cssSelector("#shipping"))
             )) != null;
+            if (loaded) {
+                PagePerformance.capture(driver, "CheckoutPage");
+            }
+            return loaded;
         } catch (Exception e) {
             System.out.println("Checkout page not loaded: " + e.getMessage());
             return false;
@@ -54,21 +64,26 @@ public class CheckoutPage {
 
     public void fillGuestShippingForm(String email) {
         try {
-            // Fill email
-            WebElement emailInput = wait.until(ExpectedConditions.visibilityOfElementLocated(emailField));
-            emailInput.clear();
-            emailInput.sendKeys(email);
-            
-            // Fill form fields
-            wait.until(ExpectedConditions.visibilityOfElementLocated(firstNameField)).sendKeys("Test");
-            driver.findElement(lastNameField).sendKeys("Automation");
-            driver.findElement(streetField).sendKeys("123 Test Street");
-            driver.findElement(cityField).sendKeys("Paris");
-            
-            // Select country
-            WebElement countrySelect = driver.findElement(countryDropdown);
-            Select country = new Select(countrySelect);
-            country.selectByVisibleText("France");
+            // Wait for the form to render, then fill every field in one script execution.
+            // Country goes before postcode so Magento validates the postcode against it.
+            wait.until(ExpectedConditions.visibilityOfElementLocated(emailField));
+            wait.until(ExpectedConditions.visibilityOfElementLocated(firstNameField));
+            Map<By, String> address = new LinkedHashMap<>();
+            address.put(emailField, email);
+            address.put(firstNameField, "Test");
+            address.put(lastNameField, "Automation");
+            address.put(streetField, "123 Test Street");
+            address.put(cityField, "Paris");
+            address.put(countryDropdown, "France");
+            address.put(postcodeField, "75001");
+            address.put(phoneField, "0102030405");
+            NetworkTracker network = NetworkTracker.of(driver);
+            NetworkTracker.Expectation shippingRates = network.expect("estimate-shipping-methods");
+            FormFiller.fill(driver, address);
+            Duration timeout = Duration.ofSeconds(TestConfig.getExplicitWaitSeconds());
+            if (!network.awaitIdle(Duration.ofMillis(100), timeout)) {
+                System.out.println("Network still busy after filling the shipping form, continuing");
+            }
             
             // Wait for state dropdown to become visible after country selection (AJAX update)
             try {
@@ -83,10 +98,10 @@ public class CheckoutPage {
                 System.out.println("State selection not available or not required");
             }
             
-            driver.findElement(postcodeField).sendKeys("75001");
-            driver.findElement(phoneField).sendKeys("0102030405");
-            
             // Wait for shipping methods to load (they appear after address is complete)
+            if (!shippingRates.await(timeout)) {
+                System.out.println("No shipping rate estimate completed, waiting for the shipping methods directly");
+            }
             wait.until(ExpectedConditions.presenceOfElementLocated(shippingMethodRadio));
         } catch (Exception e) {
             throw new RuntimeException("Failed to fill guest shipping form: " + e.getMessage(), e);
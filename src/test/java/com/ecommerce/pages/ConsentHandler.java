@@ -0,0 +1,133 @@
+package com.ecommerce.pages;
+
+import com.ecommerce.config.NetworkTracker;
+import com.ecommerce.config.TestConfig;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps cookie-consent banners out of the way.
+ * Consent cookies and localStorage entries are seeded before the first navigation (through CDP on Chrome/Edge,
+ * so the storefront never renders the banner); if a banner still shows up, it is found and clicked
+ * in a single script call instead of probing each selector with findElements and the implicit wait.
+ */
+public class ConsentHandler {
+
+    private static final String[] BANNER_SELECTORS = {
+        "button[id*='cookie']",
+        "button[class*='cookie']",
+        "button[id*='accept']",
+        "button[class*='accept']",
+        "a[id*='cookie']",
+        ".cookie-banner button",
+        "#cookie-banner button"
+    };
+
+    private static final String DISMISS_SCRIPT =
+        "var selectors = arguments[0];"
+        + "for (var i = 0; i < selectors.length; i++) {"
+        + "  var el = document.querySelector(selectors[i]);"
+        + "  if (el && el.getClientRects().length > 0 && window.getComputedStyle(el).visibility !== 'hidden') {"
+        + "    el.click();"
+        + "    return selectors[i];"
+        + "  }"
+        + "}"
+        + "return null;";
+
+    // Sessions that already carry the localStorage seeding script (it survives navigation and pooling)
+    private static final Set<WebDriver> STORAGE_SEEDED = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private ConsentHandler() {
+    }
+
+    /**
+     * Seeds consent cookies and localStorage for the base URL before the first navigation.
+     *
+     * @return true if the seeding happened ahead of navigation (CDP available)
+     */
+    public static boolean preSeed(WebDriver driver) {
+        DevTools devTools = NetworkTracker.devTools(driver);
+        if (devTools == null) {
+            return false;
+        }
+        try {
+            devTools.createSessionIfThereIsNotOne();
+            String host = URI.create(TestConfig.getBaseUrl()).getHost();
+            for (Map.Entry<String, String> cookie : TestConfig.getConsentCookies().entrySet()) {
+                Map<String, Object> params = new LinkedHashMap<>();
+                params.put("name", cookie.getKey());
+                params.put("value", cookie.getValue());
+                params.put("domain", host);
+                params.put("path", "/");
+                devTools.send(new Command<>("Network.setCookie", params));
+            }
+            Map<String, String> storage = TestConfig.getConsentLocalStorage();
+            if (!storage.isEmpty() && STORAGE_SEEDED.add(driver)) {
+                StringBuilder script = new StringBuilder("try {");
+                storage.forEach((key, value) -> script.append("localStorage.setItem(")
+                    .append(jsString(key)).append(", ").append(jsString(value)).append(");"));
+                script.append("} catch (e) {}");
+                devTools.send(new Command<>("Page.addScriptToEvaluateOnNewDocument", Map.of("source", script.toString())));
+            }
+            return true;
+        } catch (Exception e) {
+            System.out.println("Consent pre-seeding unavailable: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Fallback for sessions without CDP: sets the consent cookies on the page currently open,
+     * so at least the following navigations skip the banner.
+     */
+    public static void seedCurrentPage(WebDriver driver) {
+        try {
+            for (Map.Entry<String, String> cookie : TestConfig.getConsentCookies().entrySet()) {
+                driver.manage().addCookie(new Cookie(cookie.getKey(), cookie.getValue(), "/"));
+            }
+            Map<String, String> storage = TestConfig.getConsentLocalStorage();
+            if (!storage.isEmpty()) {
+                ((JavascriptExecutor) driver).executeScript(
+                    "var entries = arguments[0]; for (var key in entries) { localStorage.setItem(key, entries[key]); }", storage);
+            }
+        } catch (Exception e) {
+            System.out.println("Consent seeding failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Clicks the first visible consent button, if any, in one script call and waits for it to go away.
+     *
+     * @return true if a banner was dismissed
+     */
+    public static boolean dismissBanner(WebDriver driver) {
+        try {
+            Object clicked = ((JavascriptExecutor) driver).executeScript(DISMISS_SCRIPT, List.of(BANNER_SELECTORS));
+            if (clicked == null) {
+                return false;
+            }
+            // Wait in the page for the element to disappear, using the selector rather than the cached element
+            DomWait.absent(driver, By.cssSelector(String.valueOf(clicked)));
+            return true;
+        } catch (Exception e) {
+            // Ignore if cookie banner handling fails
+            return false;
+        }
+    }
+
+    private static String jsString(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pulls a list of items (e.g. product tiles) out of the page in a single script call.
+ * Each item carries the requested text/attribute values plus the element handle of each field,
+ * so matching and filtering run locally and only the final click goes back to the browser.
+ */
+public class DomSnapshot {
+
+    private static final String CAPTURE_SCRIPT =
+        "var items = document.querySelectorAll(arguments[0]), fields = arguments[1], rows = [];"
+        + "for (var i = 0; i < items.length; i++) {"
+        + "  var values = {}, elements = {};"
+        + "  for (var j = 0; j < fields.length; j++) {"
+        + "    var name = fields[j][0], el = fields[j][1] ? items[i].querySelector(fields[j][1]) : items[i];"
+        + "    if (!el) continue;"
+        + "    var attribute = fields[j][2];"
+        + "    values[name] = attribute ? el.getAttribute(attribute) : (el.innerText || el.textContent || '').trim();"
+        + "    elements[name] = el;"
+        + "  }"
+        + "  rows.push([i, values, elements]);"
+        + "}"
+        + "return rows;";
+
+    private DomSnapshot() {
+    }
+
+    /**
+     * Captures every element matching {@code items}; {@code fields} maps a field name to what to read inside each item.
+     */
+    public static List<Item> capture(WebDriver driver, By items, Map<String, Field> fields) {
+        String itemCss = Selectors.css(items);
+        if (itemCss == null) {
+            throw new IllegalArgumentException("DomSnapshot needs a CSS-compatible item locator: " + items);
+        }
+        List<List<String>> spec = new ArrayList<>();
+        fields.forEach((name, field) -> spec.add(Arrays.asList(name, field.css, field.attribute)));
+
+        Object result = ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT, itemCss, spec);
+        if (!(result instanceof List)) {
+            return Collections.emptyList();
+        }
+        List<Item> snapshot = new ArrayList<>();
+        for (Object row : (List<?>) result) {
+            List<?> columns = (List<?>) row;
+            Map<String, String> values = new LinkedHashMap<>();
+            ((Map<?, ?>) columns.get(1)).forEach((key, value) -> values.put(String.valueOf(key), value == null ? null : String.valueOf(value)));
+            Map<String, WebElement> elements = new HashMap<>();
+            ((Map<?, ?>) columns.get(2)).forEach((key, value) -> elements.put(String.valueOf(key), (WebElement) value));
+            snapshot.add(new Item(((Number) columns.get(0)).intValue(), values, elements));
+        }
+        return Collections.unmodifiableList(snapshot);
+    }
+
+    /**
+     * What to read inside an item: the text or an attribute of a descendant (or of the item itself when css is null).
+     */
+    public static final class Field {
+        private final String css;
+        private final String attribute;
+
+        private Field(String css, String attribute) {
+            this.css = css;
+            this.attribute = attribute;
+        }
+
+        public static Field text(String css) {
+            return new Field(css, null);
+        }
+
+        public static Field attribute(String css, String attribute) {
+            return new Field(css, attribute);
+        }
+    }
+
+    /**
+     * Immutable view of one captured item.
+     */
+    public static final class Item {
+        private final int index;
+        private final Map<String, String> values;
+        private final Map<String, WebElement> elements;
+
+        private Item(int index, Map<String, String> values, Map<String, WebElement> elements) {
+            this.index = index;
+            this.values = Collections.unmodifiableMap(values);
+            this.elements = Collections.unmodifiableMap(elements);
+        }
+
+        /**
+         * Position of the item among the matched elements.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public String get(String field) {
+            return values.get(field);
+        }
+
+        public Map<String, String> getValues() {
+            return values;
+        }
+
+        /**
+         * Element handle the field was read from, or null if the field was missing in this item.
+         */
+        public WebElement getElement(String field) {
+            return elements.get(field);
+        }
+
+        @Override
+        public String toString() {
+            return "Item" + index + values;
+        }
+    }
+}
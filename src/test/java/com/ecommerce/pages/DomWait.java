@@ -0,0 +1,85 @@
+package com.ecommerce.pages;
+
+import com.ecommerce.config.TestConfig;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * Waits evaluated inside the page: the condition is checked once, then again on every DOM mutation
+ * (nodes, attributes, text) until it holds or the timeout elapses, all within one executeAsyncScript call.
+ * This replaces client-side polling loops that re-run findElements/getAttribute on every tick.
+ */
+public class DomWait {
+
+    // The predicate body is spliced in (rather than built with new Function) so a strict CSP does not block it
+    private static final String AWAIT_TEMPLATE =
+        "var args = arguments[0], timeoutMs = arguments[1], callback = arguments[arguments.length - 1];"
+        + "var predicate = function (args) { %s };"
+        + "function test() { try { return !!predicate(args); } catch (e) { return false; } }"
+        + "if (test()) { callback(true); return; }"
+        + "var done = false, timer;"
+        + "var observer = new MutationObserver(function () { if (!done && test()) { finish(true); } });"
+        + "function finish(result) { done = true; observer.disconnect(); clearTimeout(timer); callback(result); }"
+        + "observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });"
+        + "timer = setTimeout(function () { finish(test()); }, timeoutMs);";
+
+    private DomWait() {
+    }
+
+    /**
+     * Waits until the JavaScript predicate body returns a truthy value; it receives {@code args}.
+     *
+     * @throws TimeoutException if the predicate still fails after the timeout
+     */
+    public static void until(WebDriver driver, String predicate, Object args, Duration timeout) {
+        // Leave the browser-side timer a little short of the script timeout so the script answers first;
+        // the session's own script timeout is put back, pooled sessions carry it into the next test
+        Duration previousTimeout = driver.manage().timeouts().getScriptTimeout();
+        driver.manage().timeouts().scriptTimeout(timeout.plusSeconds(2));
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeAsyncScript(
+                AWAIT_TEMPLATE.replace("%s", predicate), args, timeout.toMillis());
+        } finally {
+            driver.manage().timeouts().scriptTimeout(previousTimeout);
+        }
+        if (!Boolean.TRUE.equals(result)) {
+            throw new TimeoutException("In-page condition not met after " + timeout.toMillis() + " ms: " + predicate);
+        }
+    }
+
+    /**
+     * Waits up to the explicit wait timeout for an element matching the CSS locator to exist.
+     */
+    public static void present(WebDriver driver, By locator) {
+        present(driver, locator, Duration.ofSeconds(TestConfig.getExplicitWaitSeconds()));
+    }
+
+    public static void present(WebDriver driver, By locator, Duration timeout) {
+        until(driver, "return document.querySelector(args) !== null;", requireCss(locator), timeout);
+    }
+
+    /**
+     * Waits up to the explicit wait timeout for every element matching the CSS locator to be gone or hidden.
+     */
+    public static void absent(WebDriver driver, By locator) {
+        absent(driver, locator, Duration.ofSeconds(TestConfig.getExplicitWaitSeconds()));
+    }
+
+    public static void absent(WebDriver driver, By locator, Duration timeout) {
+        until(driver, "return Array.prototype.every.call(document.querySelectorAll(args),"
+            + " function (el) { return el.getClientRects().length === 0; });", requireCss(locator), timeout);
+    }
+
+    private static String requireCss(By locator) {
+        String css = Selectors.css(locator);
+        if (css == null) {
+            throw new IllegalArgumentException("DomWait needs a CSS-expressible locator, got " + locator);
+        }
+        return css;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills a form from a field-to-value map in a single script execution instead of one
+ * findElement/sendKeys round trip per field.
+ * Values are set through the native value setter and followed by input, keyup, change and blur
+ * events, which is what Knockout (value/textInput bindings) and Magento's jQuery validation listen to.
+ * Fields the script could not set, and fields explicitly flagged as needing real keystrokes,
+ * are typed through WebDriver afterwards.
+ */
+public class FormFiller {
+
+    private static final String FILL_SCRIPT =
+        "var fields = arguments[0], failed = [];"
+        + "function fire(el, type) { el.dispatchEvent(new Event(type, { bubbles: true })); }"
+        + "for (var i = 0; i < fields.length; i++) {"
+        + "  var el = document.querySelector(fields[i][0]), value = fields[i][1], expected = value;"
+        + "  if (!el || el.disabled || el.readOnly) { failed.push(i); continue; }"
+        + "  if (el.tagName === 'SELECT') {"
+        + "    var option = null;"
+        + "    for (var j = 0; j < el.options.length; j++) {"
+        + "      if (el.options[j].text.trim() === value || el.options[j].value === value) { option = el.options[j]; break; }"
+        + "    }"
+        + "    if (!option) { failed.push(i); continue; }"
+        + "    el.value = expected = option.value;"
+        + "  } else {"
+        + "    var proto = el.tagName === 'TEXTAREA' ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+        + "    Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, value);"
+        + "  }"
+        + "  fire(el, 'input'); fire(el, 'keyup'); fire(el, 'change'); fire(el, 'blur');"
+        + "  if (el.value !== expected) failed.push(i);"
+        + "}"
+        + "return failed;";
+
+    private FormFiller() {
+    }
+
+    public static void fill(WebDriver driver, Map<By, String> values) {
+        fill(driver, values, Collections.emptySet());
+    }
+
+    /**
+     * Fills the fields in map iteration order (use a LinkedHashMap when order matters,
+     * e.g. country before postcode).
+     *
+     * @param typed fields that must receive real keystrokes instead of scripted values
+     */
+    public static void fill(WebDriver driver, Map<By, String> values, Set<By> typed) {
+        List<By> fields = new ArrayList<>();
+        List<List<String>> scripted = new ArrayList<>();
+        List<By> fallback = new ArrayList<>();
+        for (Map.Entry<By, String> entry : values.entrySet()) {
+            String css = Selectors.css(entry.getKey());
+            if (css == null || typed.contains(entry.getKey())) {
+                fallback.add(entry.getKey());
+            } else {
+                fields.add(entry.getKey());
+                scripted.add(List.of(css, entry.getValue()));
+            }
+        }
+        if (!scripted.isEmpty()) {
+            Object failed = ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, scripted);
+            if (failed instanceof List) {
+                for (Object index : (List<?>) failed) {
+                    fallback.add(fields.get(((Number) index).intValue()));
+                }
+            }
+        }
+        for (By field : fallback) {
+            type(driver, field, values.get(field));
+        }
+    }
+
+    private static void type(WebDriver driver, By field, String value) {
+        WebElement element = driver.findElement(field);
+        if ("select".equalsIgnoreCase(element.getTagName())) {
+            new Select(element).selectByVisibleText(value);
+        } else {
+            element.clear();
+            element.sendKeys(value);
+        }
+    }
+}
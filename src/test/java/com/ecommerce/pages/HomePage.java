@@ -1,5 +1,6 @@
 package com.ecommerce.pages;
 
+import com.ecommerce.metrics.PagePerformance;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -17,8 +18,8 @@ public class HomePage {
     }
 
     private WebElement findSearchInputElement() {
-        // Try multiple selectors in order of likelihood for Magento 2
-        By[] selectors = {
+        // Candidates in order of likelihood for Magento 2, evaluated together by the resolver
+        return LocatorResolver.find(driver, wait, "HomePage.searchInput", LocatorResolver.Requirement.VISIBLE,
             By.id("search"),
             By.cssSelector("#search"),
             By.cssSelector("input[name='q']"),
@@ -26,27 +27,17 @@ public class HomePage {
             By.cssSelector(".block-search input#search"),
             By.cssSelector("form.form.minisearch input#search"),
             By.cssSelector("input[type='text'][placeholder*='Search']"),
-            By.xpath("//input[@id='search' and @name='q']")
-        };
-        
-        for (By selector : selectors) {
-            try {
-                // Wait for element to be present and visible
-                WebElement element = wait.until(ExpectedConditions.presenceOfElementLocated(selector));
-                if (element != null && element.isDisplayed()) {
-                    return element;
-                }
-            } catch (Exception e) {
-                // Continue to next selector
-            }
-        }
-        throw new org.openqa.selenium.NoSuchElementException("Could not find search input element with any of the tried selectors");
+            By.xpath("//input[@id='search' and @name='q']"));
     }
 
     public boolean isLoaded() {
         try {
             WebElement element = findSearchInputElement();
-            return element != null && element.isDisplayed();
+            boolean loaded = element != null && element.isDisplayed();
+            if (loaded) {
+                PagePerformance.capture(driver, "HomePage");
+            }
+            return loaded;
         } catch (Exception e) {
             return false;
         }
@@ -60,28 +51,15 @@ public class HomePage {
         searchElement.sendKeys(query);
         
         // Try multiple selectors for search button - Magento 2 specific
-        By[] buttonSelectors = {
-            By.cssSelector("button[title='Search']"),
-            By.cssSelector("button.action.search"),
-            By.cssSelector(".block-search button[type='submit']"),
-            By.cssSelector("form.minisearch button"),
-            By.cssSelector("#search_mini_form button[type='submit']"),
-            By.xpath("//button[@title='Search']")
-        };
-        
-        boolean buttonClicked = false;
-        for (By buttonSelector : buttonSelectors) {
-            try {
-                WebElement button = wait.until(ExpectedConditions.elementToBeClickable(buttonSelector));
-                button.click();
-                buttonClicked = true;
-                break;
-            } catch (Exception e) {
-                // Continue to next selector
-            }
-        }
-        
-        if (!buttonClicked) {
+        try {
+            LocatorResolver.find(driver, wait, "HomePage.searchButton", LocatorResolver.Requirement.CLICKABLE,
+                By.cssSelector("button[title='Search']"),
+                By.cssSelector("button.action.search"),
+                By.cssSelector(".block-search button[type='submit']"),
+                By.cssSelector("form.minisearch button"),
+                By.cssSelector("#search_mini_form button[type='submit']"),
+                By.xpath("//button[@title='Search']")).click();
+        } catch (Exception e) {
             // Fallback: try pressing Enter on the search input
             searchElement.sendKeys(org.openqa.selenium.Keys.ENTER);
         }
@@ -0,0 +1,117 @@
+package com.ecommerce.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves an element from a chain of fallback selectors in a single browser round trip.
+ * All candidates are evaluated inside the page on each poll, so a stale selector no longer costs
+ * a full explicit wait timeout before the next one is tried. The selector that matched last time
+ * is remembered per locator key (e.g. "HomePage.searchInput") and tried first on later calls.
+ */
+public class LocatorResolver {
+
+    /**
+     * What the matched element must satisfy to be returned.
+     */
+    public enum Requirement {
+        PRESENT, VISIBLE, CLICKABLE
+    }
+
+    private static final String RESOLVE_SCRIPT =
+        "var candidates = arguments[0], requirement = arguments[1];"
+        + "function visible(el) {"
+        + "  var style = window.getComputedStyle(el);"
+        + "  return el.getClientRects().length > 0 && style.visibility !== 'hidden' && style.display !== 'none';"
+        + "}"
+        + "function matches(el) {"
+        + "  if (requirement === 'PRESENT') return true;"
+        + "  if (!visible(el)) return false;"
+        + "  return requirement !== 'CLICKABLE' || !el.disabled;"
+        + "}"
+        + "for (var i = 0; i < candidates.length; i++) {"
+        + "  var nodes = [];"
+        + "  try {"
+        + "    if (candidates[i][1] === 'xpath') {"
+        + "      var result = document.evaluate(candidates[i][2], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+        + "      for (var j = 0; j < result.snapshotLength; j++) nodes.push(result.snapshotItem(j));"
+        + "    } else {"
+        + "      nodes = document.querySelectorAll(candidates[i][2]);"
+        + "    }"
+        + "  } catch (e) { continue; }"
+        + "  for (var k = 0; k < nodes.length; k++) {"
+        + "    if (matches(nodes[k])) return [candidates[i][0], nodes[k]];"
+        + "  }"
+        + "}"
+        + "return null;";
+
+    private static final Map<String, Integer> WINNERS = new ConcurrentHashMap<>();
+
+    private LocatorResolver() {
+    }
+
+    /**
+     * Waits (within the given wait's timeout) until any candidate matches the requirement.
+     *
+     * @throws NoSuchElementException if no candidate matched before the timeout
+     */
+    public static WebElement find(WebDriver driver, WebDriverWait wait, String key, Requirement requirement, By... candidates) {
+        List<List<Object>> ordered = orderedCandidates(key, candidates);
+        try {
+            return wait.until(webDriver -> {
+                Object result = ((JavascriptExecutor) webDriver).executeScript(RESOLVE_SCRIPT, ordered, requirement.name());
+                if (!(result instanceof List) || ((List<?>) result).size() < 2) {
+                    return null;
+                }
+                List<?> match = (List<?>) result;
+                WINNERS.put(key, ((Number) match.get(0)).intValue());
+                return (WebElement) match.get(1);
+            });
+        } catch (TimeoutException e) {
+            throw new NoSuchElementException("Could not find " + key + " with any of the tried selectors");
+        }
+    }
+
+    /**
+     * Index (in declaration order) of the selector that matched last for the given key, or -1.
+     */
+    public static int getWinner(String key) {
+        return WINNERS.getOrDefault(key, -1);
+    }
+
+    /**
+     * Translates the candidates to [index, using, value] triples, cached winner first.
+     * Only CSS and XPath strategies can be evaluated in the page; By.id and the other
+     * pre-W3C locators already report themselves as CSS selectors.
+     */
+    private static List<List<Object>> orderedCandidates(String key, By... candidates) {
+        List<List<Object>> ordered = new ArrayList<>();
+        int winner = getWinner(key);
+        for (int i = 0; i < candidates.length; i++) {
+            if (!(candidates[i] instanceof By.Remotable)) {
+                continue;
+            }
+            By.Remotable.Parameters params = ((By.Remotable) candidates[i]).getRemoteParameters();
+            if (!"css selector".equals(params.using()) && !"xpath".equals(params.using())) {
+                continue;
+            }
+            List<Object> candidate = List.of(i, params.using(), String.valueOf(params.value()));
+            if (i == winner) {
+                ordered.add(0, candidate);
+            } else {
+                ordered.add(candidate);
+            }
+        }
+        return ordered;
+    }
+}
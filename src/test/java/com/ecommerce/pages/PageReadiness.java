@@ -0,0 +1,108 @@
+package com.ecommerce.pages;
+
+import com.ecommerce.config.TestConfig;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+
+/**
+ * Waits for the storefront to be usable through a single executeAsyncScript call.
+ * The script resolves inside the page once the DOM is parsed, no XHR/fetch is in flight,
+ * RequireJS has no module left to load and nothing changed for a quiet window.
+ * This works with the EAGER and NONE page load strategies, where driver.get() returns before the load event.
+ */
+public class PageReadiness {
+
+    private static final String AWAIT_SCRIPT =
+        "var quietMs = arguments[0], deadline = Date.now() + arguments[1], callback = arguments[arguments.length - 1];"
+        + "var state = window.__ecommerceReadiness;"
+        + "if (!state) {"
+        + "  state = window.__ecommerceReadiness = { pending: 0, last: Date.now() };"
+        + "  var touch = function () { state.last = Date.now(); };"
+        + "  var send = XMLHttpRequest.prototype.send;"
+        + "  XMLHttpRequest.prototype.send = function () {"
+        + "    state.pending++; touch();"
+        + "    this.addEventListener('loadend', function () { state.pending--; touch(); });"
+        + "    return send.apply(this, arguments);"
+        + "  };"
+        + "  if (window.fetch) {"
+        + "    var fetch = window.fetch;"
+        + "    window.fetch = function () {"
+        + "      state.pending++; touch();"
+        + "      var done = function () { state.pending--; touch(); };"
+        + "      return fetch.apply(this, arguments).then(function (r) { done(); return r; }, function (e) { done(); throw e; });"
+        + "    };"
+        + "  }"
+        + "  new MutationObserver(touch).observe(document.documentElement, { childList: true, subtree: true });"
+        + "  if (window.PerformanceObserver) {"
+        + "    try { new PerformanceObserver(touch).observe({ type: 'resource', buffered: false }); } catch (e) {}"
+        + "  }"
+        + "}"
+        + "function requirePending() {"
+        + "  try { return Object.keys(window.require.s.contexts._.registry).length; } catch (e) { return 0; }"
+        + "}"
+        + "function jQueryPending() {"
+        + "  return typeof window.jQuery !== 'undefined' && window.jQuery.active ? window.jQuery.active : 0;"
+        + "}"
+        + "(function check() {"
+        // With the NONE strategy the script can start on the previous about:blank document
+        + "  var settled = location.protocol !== 'about:' && document.readyState !== 'loading' && state.pending <= 0"
+        + "    && requirePending() === 0 && jQueryPending() === 0 && Date.now() - state.last >= quietMs;"
+        + "  if (settled) { callback(true); return; }"
+        + "  if (Date.now() > deadline) { callback(false); return; }"
+        + "  setTimeout(check, 50);"
+        + "})();";
+
+    private PageReadiness() {
+    }
+
+    /**
+     * Waits up to the explicit wait timeout for the current page to settle.
+     *
+     * @return true if the page settled, false if the timeout was reached first
+     */
+    public static boolean await(WebDriver driver) {
+        return await(driver, Duration.ofSeconds(TestConfig.getExplicitWaitSeconds()), TestConfig.getReadinessQuietMillis());
+    }
+
+    public static boolean await(WebDriver driver, Duration timeout, long quietMillis) {
+        // Leave the browser-side deadline a little short of the script timeout so the script answers first;
+        // the session's own script timeout is put back for the other executeAsyncScript callers
+        Duration previousTimeout = driver.manage().timeouts().getScriptTimeout();
+        driver.manage().timeouts().scriptTimeout(timeout.plusSeconds(2));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                try {
+                    Object settled = ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_SCRIPT, quietMillis, remainingMillis);
+                    return Boolean.TRUE.equals(settled);
+                } catch (ScriptTimeoutException e) {
+                    return false;
+                } catch (WebDriverException e) {
+                    // Only a document replaced while waiting (redirect, form post) is retried, on the new page
+                    if (!isDocumentUnloaded(e)) {
+                        return false;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            driver.manage().timeouts().scriptTimeout(previousTimeout);
+        }
+    }
+
+    /**
+     * Chrome reports "document unloaded while waiting for result", Firefox "Document was unloaded".
+     */
+    private static boolean isDocumentUnloaded(WebDriverException e) {
+        String message = e.getMessage();
+        return message != null && message.toLowerCase().contains("unloaded");
+    }
+}
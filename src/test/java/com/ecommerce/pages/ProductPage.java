@@ -1,5 +1,8 @@
 package com.ecommerce.pages;
 
+import com.ecommerce.config.NetworkTracker;
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.metrics.PagePerformance;
 import org.openqa.selenium.By;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
@@ -7,6 +10,7 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.time.Duration;
 import java.util.List;
 
 public class ProductPage {
@@ -15,6 +19,8 @@ public class ProductPage {
 
     private final By sizeOptions = By.cssSelector("div.swatch-attribute.size div.swatch-option");
     private final By colorOptions = By.cssSelector("div.swatch-attribute.color div.swatch-option");
+    private final By selectedSize = By.cssSelector("div.swatch-attribute.size div.swatch-option[class*='selected']");
+    private final By selectedColor = By.cssSelector("div.swatch-attribute.color div.swatch-option[class*='selected']");
     private final By addToCartButton = By.cssSelector("#product-addtocart-button");
     private final By miniCartToggle = By.cssSelector("a.showcart");
 
@@ -27,42 +33,19 @@ public class ProductPage {
      * Finds the success toast message using multiple fallback selectors
      */
     private WebElement findSuccessToast() {
-        By[] toastSelectors = {
+        return LocatorResolver.find(driver, wait, "ProductPage.successToast", LocatorResolver.Requirement.VISIBLE,
             By.cssSelector("div[data-bind*='message']"),
             By.cssSelector("div.message-success"),
-            By.cssSelector("div.messages div.message")
-        };
-        
-        for (By selector : toastSelectors) {
-            try {
-                WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(selector));
-                if (element.isDisplayed()) {
-                    return element;
-                }
-            } catch (Exception e) {
-                // Continue to next selector
-            }
-        }
-        throw new org.openqa.selenium.NoSuchElementException("Could not find success toast with any of the tried selectors");
+            By.cssSelector("div.messages div.message"));
     }
 
     /**
      * Finds the view cart link using multiple fallback selectors
      */
     private WebElement findViewCartLink() {
-        By[] cartLinkSelectors = {
+        return LocatorResolver.find(driver, wait, "ProductPage.viewCartLink", LocatorResolver.Requirement.CLICKABLE,
             By.cssSelector("a.viewcart"),
-            By.cssSelector("div.minicart-wrapper a[href*='checkout/cart']")
-        };
-        
-        for (By selector : cartLinkSelectors) {
-            try {
-                return wait.until(ExpectedConditions.elementToBeClickable(selector));
-            } catch (Exception e) {
-                // Continue to next selector
-            }
-        }
-        throw new org.openqa.selenium.NoSuchElementException("Could not find view cart link with any of the tried selectors");
+            By.cssSelector("div.minicart-wrapper a[href*='checkout/cart']"));
     }
 
     /**
@@ -70,6 +53,7 @@ public class ProductPage {
      */
     private void selectSizeIfAvailable() {
         try {
+            // Implicit waits are off, so a product without swatches is detected at once
             List<WebElement> sizes = driver.findElements(sizeOptions);
             if (!sizes.isEmpty()) {
                 // Select first available size that is not disabled
@@ -83,17 +67,9 @@ public class ProductPage {
                     }
                 }
                 
-                // If we clicked a size, wait for at least one size to have 'selected' class
-                // Note: Re-querying elements on each iteration is intentional to avoid
-                // StaleElementReferenceException after DOM updates from the click
+                // If we clicked a size, wait in the page for at least one size to get the 'selected' class
                 if (sizeSelected) {
-                    wait.until(driver -> {
-                        List<WebElement> updatedSizes = driver.findElements(sizeOptions);
-                        return updatedSizes.stream().anyMatch(s -> {
-                            String classAttr = s.getAttribute("class");
-                            return classAttr != null && classAttr.contains("selected");
-                        });
-                    });
+                    DomWait.present(driver, selectedSize);
                 }
             }
         } catch (TimeoutException e) {
@@ -109,6 +85,7 @@ public class ProductPage {
      */
     private void selectColorIfAvailable() {
         try {
+            // Implicit waits are off, so a product without swatches is detected at once
             List<WebElement> colors = driver.findElements(colorOptions);
             if (!colors.isEmpty()) {
                 // Select first available color that is not disabled
@@ -122,17 +99,9 @@ public class ProductPage {
                     }
                 }
                 
-                // If we clicked a color, wait for at least one color to have 'selected' class
-                // Note: Re-querying elements on each iteration is intentional to avoid
-                // StaleElementReferenceException after DOM updates from the click
+                // If we clicked a color, wait in the page for at least one color to get the 'selected' class
                 if (colorSelected) {
-                    wait.until(driver -> {
-                        List<WebElement> updatedColors = driver.findElements(colorOptions);
-                        return updatedColors.stream().anyMatch(c -> {
-                            String classAttr = c.getAttribute("class");
-                            return classAttr != null && classAttr.contains("selected");
-                        });
-                    });
+                    DomWait.present(driver, selectedColor);
                 }
             }
         } catch (TimeoutException e) {
@@ -145,12 +114,24 @@ public class ProductPage {
 
     public CartPage addToCartAndOpenCart() {
         try {
+            // Swatches are rendered by RequireJS widgets: let the page settle once before looking for them
+            PageReadiness.await(driver);
+            PagePerformance.capture(driver, "ProductPage");
             // Select size and color if available
             selectSizeIfAvailable();
             selectColorIfAvailable();
             
-            // Add to cart
+            // Add to cart, then block on the add-to-cart request itself rather than polling for the toast
+            NetworkTracker tracker = NetworkTracker.of(driver);
+            NetworkTracker.Expectation addToCart = tracker.expect("checkout/cart/add");
             wait.until(ExpectedConditions.elementToBeClickable(addToCartButton)).click();
+            if (!addToCart.await(Duration.ofSeconds(TestConfig.getExplicitWaitSeconds()))) {
+                if (tracker.isCdp()) {
+                    throw new TimeoutException("Add-to-cart request did not complete within " + TestConfig.getExplicitWaitSeconds() + " s");
+                }
+                // Resource Timing can miss the request (full buffer, new document): the toast still confirms it
+                System.out.println("Add-to-cart request not seen in Resource Timing, waiting for the success message");
+            }
             findSuccessToast(); // Wait for success message
             
             // Open cart
@@ -1,19 +1,28 @@
 package com.ecommerce.pages;
 
+import com.ecommerce.metrics.PagePerformance;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class SearchResultsPage {
     private final WebDriver driver;
     private final WebDriverWait wait;
 
     private final By productItems = By.cssSelector("ol.products.list.items.product-items li.product-item");
-    private final By productName = By.cssSelector("a.product-item-link");
+    private static final Map<String, DomSnapshot.Field> PRODUCT_FIELDS = new LinkedHashMap<>();
+
+    static {
+        PRODUCT_FIELDS.put("name", DomSnapshot.Field.text("a.product-item-link"));
+        PRODUCT_FIELDS.put("href", DomSnapshot.Field.attribute("a.product-item-link", "href"));
+        PRODUCT_FIELDS.put("price", DomSnapshot.Field.text("span.price"));
+    }
 
     public SearchResultsPage(WebDriver driver, WebDriverWait wait) {
         this.driver = driver;
@@ -22,22 +31,30 @@ public class SearchResultsPage {
 
     public boolean hasResults() {
         List<WebElement> items = wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(productItems));
+        PagePerformance.capture(driver, "SearchResultsPage");
         return !items.isEmpty();
     }
 
+    /**
+     * Snapshot of the product tiles (name, href, price) taken in a single script call,
+     * waiting until at least one tile is rendered.
+     */
+    public List<DomSnapshot.Item> getProducts() {
+        return wait.until(webDriver -> {
+            List<DomSnapshot.Item> products = DomSnapshot.capture(webDriver, productItems, PRODUCT_FIELDS);
+            return products.isEmpty() ? null : products;
+        });
+    }
+
     public ProductPage openProductByName(String name) {
-        wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(productItems));
-        List<WebElement> items = driver.findElements(productItems);
-        for (WebElement item : items) {
-            WebElement title = item.findElement(productName);
-            if (title.getText().toLowerCase().contains(name.toLowerCase())) {
-                title.click();
-                return new ProductPage(driver, wait);
-            }
-        }
-        // Fallback to first item if specific name not found
-        items.get(0).findElement(productName).click();
+        List<DomSnapshot.Item> products = getProducts();
+        PagePerformance.capture(driver, "SearchResultsPage");
+        DomSnapshot.Item match = products.stream()
+            .filter(product -> product.get("name") != null && product.get("name").toLowerCase().contains(name.toLowerCase()))
+            .findFirst()
+            // Fallback to first item if specific name not found
+            .orElse(products.get(0));
+        match.getElement("name").click();
         return new ProductPage(driver, wait);
     }
 }
-
@@ -0,0 +1,24 @@
+package com.ecommerce.pages;
+
+import org.openqa.selenium.By;
+
+/**
+ * Helpers for handing Selenium locators to in-page scripts.
+ */
+final class Selectors {
+
+    private Selectors() {
+    }
+
+    /**
+     * CSS selector equivalent of the locator, or null when it cannot be expressed as CSS.
+     * By.id, By.name, By.className and By.cssSelector all report themselves as CSS selectors.
+     */
+    static String css(By by) {
+        if (!(by instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters params = ((By.Remotable) by).getRemoteParameters();
+        return "css selector".equals(params.using()) ? String.valueOf(params.value()) : null;
+    }
+}
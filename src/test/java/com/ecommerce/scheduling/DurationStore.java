@@ -0,0 +1,82 @@
+package com.ecommerce.scheduling;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-test durations carried across runs, as an exponentially weighted moving average (ms) per "Class.method".
+ * A run's time for a method is the sum of its invocations (data-provider rows included); it is folded into
+ * the average when the store is saved, so one unusually slow run does not reorder the whole schedule.
+ */
+public class DurationStore {
+
+    private static final double WEIGHT = 0.3;
+
+    private final Path file;
+    private final Map<String, Long> history = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> currentRun = new ConcurrentHashMap<>();
+
+    public DurationStore(Path file) {
+        this.file = file;
+        if (!Files.isReadable(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            properties.forEach((key, value) -> history.put(String.valueOf(key), Long.parseLong(String.valueOf(value))));
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Ignoring unreadable test duration history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Historical duration of a test, if it ran before.
+     */
+    public OptionalLong get(String test) {
+        Long millis = history.get(test);
+        return millis == null ? OptionalLong.empty() : OptionalLong.of(millis);
+    }
+
+    /**
+     * Average of the known durations, used for tests without history.
+     */
+    public long getAverage() {
+        return (long) history.values().stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+
+    public void record(String test, long millis) {
+        currentRun.computeIfAbsent(test, key -> new LongAdder()).add(millis);
+    }
+
+    /**
+     * Folds this run's durations into the history and writes it back. The run is cleared once folded,
+     * so a second save in the same JVM does not weigh the same durations twice.
+     */
+    public void save() {
+        currentRun.forEach((test, millis) -> history.merge(test, millis.sum(),
+            (previous, current) -> Math.round(WEIGHT * current + (1 - WEIGHT) * previous)));
+        currentRun.clear();
+        // Sorted lines keep the file diff-friendly when it is cached or committed
+        List<String> lines = new ArrayList<>();
+        lines.add("# Test durations (ms, moving average across runs)");
+        new TreeMap<>(history).forEach((test, millis) -> lines.add(test + "=" + millis));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("Unable to save test durations to " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Longest-processing-time-first planning: tests sorted by expected duration, each handed to the
+ * least loaded worker. Used both to order a suite (so the longest tests do not start last) and to
+ * split it into balanced shards for several surefire forks or CI machines.
+ */
+public class ShardPlanner {
+
+    private ShardPlanner() {
+    }
+
+    /**
+     * Splits the tests into {@code shardCount} shards of near-equal expected duration.
+     *
+     * @param durations expected duration (ms) per test
+     * @return one shard per index, each in longest-first order
+     */
+    public static List<Shard> plan(Map<String, Long> durations, int shardCount) {
+        List<Shard> shards = new ArrayList<>();
+        PriorityQueue<Shard> byLoad = new PriorityQueue<>(Comparator.comparingLong(Shard::getExpectedMillis)
+            .thenComparingInt(Shard::getIndex));
+        for (int i = 0; i < Math.max(1, shardCount); i++) {
+            Shard shard = new Shard(i);
+            shards.add(shard);
+            byLoad.add(shard);
+        }
+        for (Map.Entry<String, Long> test : longestFirst(durations).entrySet()) {
+            Shard lightest = byLoad.poll();
+            lightest.add(test.getKey(), test.getValue());
+            byLoad.add(lightest);
+        }
+        return shards;
+    }
+
+    /**
+     * Expected wall-clock time of running the tests on {@code workers} parallel workers.
+     */
+    public static long makespan(Map<String, Long> durations, int workers) {
+        return plan(durations, workers).stream().mapToLong(Shard::getExpectedMillis).max().orElse(0);
+    }
+
+    /**
+     * The tests ordered by decreasing duration (ties by name, so the order is stable across runs).
+     */
+    public static Map<String, Long> longestFirst(Map<String, Long> durations) {
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        durations.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .forEach(e -> ordered.put(e.getKey(), e.getValue()));
+        return ordered;
+    }
+
+    public static final class Shard {
+        private final int index;
+        private final List<String> tests = new ArrayList<>();
+        private long expectedMillis;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        private void add(String test, long millis) {
+            tests.add(test);
+            expectedMillis += millis;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public List<String> getTests() {
+            return Collections.unmodifiableList(tests);
+        }
+
+        public long getExpectedMillis() {
+            return expectedMillis;
+        }
+    }
+}
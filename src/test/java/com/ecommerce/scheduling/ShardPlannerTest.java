@@ -0,0 +1,71 @@
+package com.ecommerce.scheduling;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShardPlannerTest {
+
+    @Test(description = "Ordre décroissant des durées, égalités départagées par nom")
+    public void ordersLongestFirstWithStableTies() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        durations.put("B.b", 100L);
+        durations.put("A.a", 100L);
+        durations.put("C.c", 500L);
+        durations.put("D.d", 10L);
+
+        Assert.assertEquals(new ArrayList<>(ShardPlanner.longestFirst(durations).keySet()),
+            List.of("C.c", "A.a", "B.b", "D.d"), "L'ordre des tests n'est pas le plus long d'abord.");
+    }
+
+    @Test(description = "Répartition LPT : chaque test va au shard le moins chargé")
+    public void balancesShardsLongestProcessingTimeFirst() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        durations.put("t7", 7L);
+        durations.put("t6", 6L);
+        durations.put("t5", 5L);
+        durations.put("t4", 4L);
+        durations.put("t3", 3L);
+        durations.put("t2", 2L);
+
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(durations, 2);
+
+        Assert.assertEquals(shards.size(), 2);
+        // LPT: 7 -> s0, 6 -> s1, 5 -> s1 (6 < 7), 4 -> s0, 3 -> s0 (11 = 11, lowest index), 2 -> s1
+        Assert.assertEquals(shards.get(0).getTests(), List.of("t7", "t4", "t3"));
+        Assert.assertEquals(shards.get(1).getTests(), List.of("t6", "t5", "t2"));
+        Assert.assertEquals(shards.get(0).getExpectedMillis(), 14L);
+        Assert.assertEquals(shards.get(1).getExpectedMillis(), 13L);
+        Assert.assertEquals(ShardPlanner.makespan(durations, 2), 14L, "Le makespan doit être la charge du shard le plus long.");
+    }
+
+    @Test(description = "Chaque test est planifié dans exactement un shard")
+    public void assignsEveryTestToExactlyOneShard() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (int i = 0; i < 50; i++) {
+            durations.put("Test.m" + i, (long) (i * 37 % 101) + 1);
+        }
+
+        List<String> planned = new ArrayList<>();
+        for (ShardPlanner.Shard shard : ShardPlanner.plan(durations, 4)) {
+            planned.addAll(shard.getTests());
+        }
+
+        Assert.assertEquals(planned.size(), durations.size(), "Un test est planifié deux fois ou oublié.");
+        Assert.assertTrue(planned.containsAll(durations.keySet()), "Un test n'est dans aucun shard.");
+    }
+
+    @Test(description = "Plus de shards que de tests : les shards en trop restent vides")
+    public void leavesExtraShardsEmpty() {
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(Map.of("Only.test", 42L), 3);
+
+        Assert.assertEquals(shards.get(0).getTests(), List.of("Only.test"));
+        Assert.assertTrue(shards.get(1).getTests().isEmpty());
+        Assert.assertTrue(shards.get(2).getTests().isEmpty());
+        Assert.assertEquals(ShardPlanner.makespan(Map.of(), 4), 0L);
+    }
+}
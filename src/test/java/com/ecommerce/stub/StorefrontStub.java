@@ -0,0 +1,385 @@
+package com.ecommerce.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded storefront serving recorded fixture pages (home, category, search, product, cart, checkout, success)
+ * and the JSON endpoints the page objects and CartFixtures use, with the same markup the Magento page objects expect.
+ * Every response can be delayed by a fixed latency plus random jitter, so runs against localhost are reproducible
+ * and the injected site latency can be subtracted from test durations to see the framework's own overhead.
+ * The cart is identified by the guest_cart_id cookie, shared with CartFixtures; like Magento, pages hand out a
+ * form_key cookie that add-to-cart requests must echo back.
+ */
+public class StorefrontStub {
+
+    static final String CART_COOKIE = "guest_cart_id";
+    static final String FORM_KEY_COOKIE = "form_key";
+
+    private static final Pattern GUEST_CART = Pattern.compile("/rest/(?:default/)?V1/guest-carts(?:/([^/]+)(/.*)?)?");
+    private static final Pattern PRODUCT = Pattern.compile("/product/([\\w-]+)\\.html");
+    private static final Json JSON = new Json();
+
+    private final Map<String, Product> catalog = new LinkedHashMap<>();
+    private final Map<String, List<Product>> carts = new ConcurrentHashMap<>();
+    private final Map<String, String> templates = new ConcurrentHashMap<>();
+    private final AtomicInteger orderSequence = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedMillis = new LongAdder();
+
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param latencyMillis delay added to every response
+     * @param jitterMillis  upper bound of an extra random delay per response
+     */
+    public StorefrontStub(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        addProduct(new Product("MJ03", "Montana Wind Jacket", "49.00", true));
+        addProduct(new Product("WJ12", "Olivia 1/4 Zip Light Jacket", "77.00", true));
+        addProduct(new Product("24-MB01", "Joust Duffle Bag", "34.00", false));
+        addProduct(new Product("24-WB04", "Push It Messenger Bag", "45.00", false));
+    }
+
+    /**
+     * Starts the server on the given port (0 picks a free one).
+     */
+    public StorefrontStub start(int port) {
+        try {
+            // Load replays open many connections at once; the default backlog (50) would refuse some of them
+            server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to start the storefront stub on port " + port, e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "storefront-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Total latency added on purpose, i.e. the part of the run's time that is "site" rather than framework.
+     */
+    public long getInjectedLatencyMillis() {
+        return injectedMillis.sum();
+    }
+
+    private void addProduct(Product product) {
+        catalog.put(product.sku, product);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            delay();
+            try {
+                route(exchange);
+            } catch (RuntimeException e) {
+                // HttpServer drops the connection silently on handler exceptions: answer with a 500 instead
+                json(exchange, 500, Map.of("message", String.valueOf(e.getMessage())));
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        Matcher guestCart = GUEST_CART.matcher(path);
+        Matcher product = PRODUCT.matcher(path);
+        if (guestCart.matches()) {
+            handleGuestCart(exchange, method, guestCart.group(1), guestCart.group(2));
+        } else if (path.equals("/") || path.equals("/index.php")) {
+            page(exchange, "Home Page", "home.html", Map.of());
+        } else if (path.equals("/what-is-new.html")) {
+            page(exchange, "What's New", "category.html", Map.of("heading", "What's New"));
+        } else if (path.equals("/women.html")) {
+            page(exchange, "Women", "category.html", Map.of("heading", "Women"));
+        } else if (path.equals("/catalogsearch/result/")) {
+            String query = query(exchange).getOrDefault("q", "");
+            page(exchange, "Search results for: '" + query + "'", "search.html",
+                Map.of("query", escape(query), "items", searchItems(query)));
+        } else if (product.matches() && findProduct(product.group(1)) != null) {
+            Product found = findProduct(product.group(1));
+            page(exchange, found.name, found.configurable ? "product-configurable.html" : "product.html",
+                Map.of("sku", found.sku, "name", escape(found.name), "price", found.price));
+        } else if (path.equals("/checkout/cart/add") && method.equals("POST")) {
+            addToBrowserCart(exchange);
+        } else if (path.equals("/checkout/cart/")) {
+            String cartId = cookie(exchange, CART_COOKIE);
+            List<Product> items = cartId == null ? List.of() : carts.getOrDefault(cartId, List.of());
+            page(exchange, "Shopping Cart", items.isEmpty() ? "cart-empty.html" : "cart.html",
+                Map.of("items", cartRows(items)));
+        } else if (path.equals("/checkout/")) {
+            page(exchange, "Checkout", "checkout.html", Map.of());
+        } else if (path.equals("/checkout/onepage/success/")) {
+            page(exchange, "Success Page", "success.html",
+                Map.of("order", escape(query(exchange).getOrDefault("order", ""))));
+        } else {
+            respond(exchange, 404, "text/html", "<html><head><title>404 Not Found</title></head><body>Not found</body></html>");
+        }
+    }
+
+    private void handleGuestCart(HttpExchange exchange, String method, String cartId, String action) throws IOException {
+        if (cartId == null && method.equals("POST")) {
+            String id = UUID.randomUUID().toString().replace("-", "");
+            carts.put(id, Collections.synchronizedList(new ArrayList<>()));
+            json(exchange, 200, id);
+            return;
+        }
+        List<Product> cart = cartId == null ? null : carts.get(cartId);
+        if (cart == null) {
+            json(exchange, 404, Map.of("message", "No such entity with cartId = " + cartId));
+            return;
+        }
+        if ("/items".equals(action) && method.equals("POST")) {
+            Map<String, Object> body = JSON.toType(body(exchange), Json.MAP_TYPE);
+            Object item = body.get("cartItem") instanceof Map ? ((Map<?, ?>) body.get("cartItem")).get("sku") : null;
+            Product product = item == null ? null : catalog.get(String.valueOf(item));
+            if (product == null) {
+                json(exchange, 404, Map.of("message", "The product that was requested doesn't exist."));
+                return;
+            }
+            cart.add(product);
+            json(exchange, 200, itemJson(cartId, cart.size(), product));
+        } else if ("/items".equals(action)) {
+            List<Object> items = new ArrayList<>();
+            synchronized (cart) {
+                for (int i = 0; i < cart.size(); i++) {
+                    items.add(itemJson(cartId, i + 1, cart.get(i)));
+                }
+            }
+            json(exchange, 200, items);
+        } else if ("/estimate-shipping-methods".equals(action)) {
+            json(exchange, 200, List.of(Map.of("carrier_code", "flatrate", "method_code", "flatrate",
+                "carrier_title", "Flat Rate", "method_title", "Fixed", "amount", 5, "available", true)));
+        } else if ("/payment-information".equals(action) && method.equals("POST")) {
+            carts.remove(cartId);
+            json(exchange, 200, String.format("%09d", orderSequence.incrementAndGet()));
+        } else {
+            json(exchange, 404, Map.of("message", "Request does not match any route."));
+        }
+    }
+
+    /**
+     * Storefront add-to-cart (the XHR the product page sends), creating the cart cookie on first use.
+     */
+    private void addToBrowserCart(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(body(exchange));
+        String formKey = cookie(exchange, FORM_KEY_COOKIE);
+        if (formKey == null || !formKey.equals(form.get("form_key"))) {
+            json(exchange, 400, Map.of("message", "Invalid Form Key. Please refresh the page."));
+            return;
+        }
+        Product product = catalog.get(form.getOrDefault("sku", ""));
+        if (product == null) {
+            json(exchange, 400, Map.of("message", "Product not found"));
+            return;
+        }
+        String cartId = cookie(exchange, CART_COOKIE);
+        if (cartId == null || !carts.containsKey(cartId)) {
+            cartId = UUID.randomUUID().toString().replace("-", "");
+            carts.put(cartId, Collections.synchronizedList(new ArrayList<>()));
+            exchange.getResponseHeaders().add("Set-Cookie", CART_COOKIE + "=" + cartId + "; Path=/");
+        }
+        carts.get(cartId).add(product);
+        json(exchange, 200, Map.of("success", true, "name", product.name));
+    }
+
+    private Product findProduct(String slug) {
+        return catalog.values().stream().filter(p -> p.slug().equals(slug)).findFirst().orElse(null);
+    }
+
+    private String searchItems(String query) {
+        String needle = query.toLowerCase(Locale.ROOT).trim();
+        return catalog.values().stream()
+            .filter(p -> !needle.isEmpty() && p.name.toLowerCase(Locale.ROOT).contains(needle))
+            .map(p -> "<li class=\"item product product-item\"><div class=\"product-item-info\">"
+                + "<strong class=\"product name product-item-name\"><a class=\"product-item-link\" href=\"/product/"
+                + p.slug() + ".html\">" + escape(p.name) + "</a></strong>"
+                + "<span class=\"price\">$" + p.price + "</span></div></li>")
+            .collect(Collectors.joining("\n"));
+    }
+
+    private String cartRows(List<Product> items) {
+        StringBuilder rows = new StringBuilder();
+        synchronized (items) {
+            for (Product p : items) {
+                rows.append("<tbody class=\"cart item\"><tr class=\"item-info\"><td>").append(escape(p.name))
+                    .append("</td><td><span class=\"price\">$").append(p.price).append("</span></td></tr></tbody>\n");
+            }
+        }
+        return rows.toString();
+    }
+
+    private static Map<String, Object> itemJson(String cartId, int itemId, Product product) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("item_id", itemId);
+        item.put("sku", product.sku);
+        item.put("qty", 1);
+        item.put("name", product.name);
+        item.put("price", Double.parseDouble(product.price));
+        item.put("product_type", product.configurable ? "configurable" : "simple");
+        item.put("quote_id", cartId);
+        return item;
+    }
+
+    private void page(HttpExchange exchange, String title, String template, Map<String, String> values) throws IOException {
+        String formKey = cookie(exchange, FORM_KEY_COOKIE);
+        if (formKey == null) {
+            formKey = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+            exchange.getResponseHeaders().add("Set-Cookie", FORM_KEY_COOKIE + "=" + formKey + "; Path=/");
+        }
+        String content = template(template).replace("{{formKey}}", formKey);
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            content = content.replace("{{" + value.getKey() + "}}", value.getValue());
+        }
+        String html = template("layout.html").replace("{{title}}", escape(title)).replace("{{content}}", content);
+        respond(exchange, 200, "text/html; charset=UTF-8", html);
+    }
+
+    private String template(String name) {
+        return templates.computeIfAbsent(name, key -> {
+            try (InputStream in = StorefrontStub.class.getClassLoader().getResourceAsStream("stub/" + key)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing stub template stub/" + key);
+                }
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read stub template " + key, e);
+            }
+        });
+    }
+
+    private void delay() {
+        long millis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (millis <= 0) {
+            return;
+        }
+        injectedMillis.add(millis);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void json(HttpExchange exchange, int status, Object body) throws IOException {
+        respond(exchange, status, "application/json", JSON.toJson(body));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String cookie(HttpExchange exchange, String name) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(name)) {
+                    return pair[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        return parseForm(exchange.getRequestURI().getRawQuery());
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            String[] parts = pair.split("=", 2);
+            values.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return values;
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;").replace("'", "&#39;");
+    }
+
+    private static final class Product {
+        private final String sku;
+        private final String name;
+        private final String price;
+        private final boolean configurable;
+
+        private Product(String sku, String name, String price, boolean configurable) {
+            this.sku = sku;
+            this.name = name;
+            this.price = price;
+            this.configurable = configurable;
+        }
+
+        private String slug() {
+            return sku.toLowerCase(Locale.ROOT);
+        }
+    }
+}
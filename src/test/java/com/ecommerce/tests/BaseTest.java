@@ -1,86 +1,108 @@
 package com.ecommerce.tests;
 
+import com.ecommerce.config.AdaptiveWait;
+import com.ecommerce.config.AdmissionControl;
 import com.ecommerce.config.DriverFactory;
+import com.ecommerce.config.DriverPool;
+import com.ecommerce.config.NetworkTracker;
+import com.ecommerce.config.Stages;
 import com.ecommerce.config.TestConfig;
-import org.openqa.selenium.By;
+import com.ecommerce.load.TrafficRecorder;
+import com.ecommerce.metrics.StepTimings;
+import com.ecommerce.pages.ConsentHandler;
+import com.ecommerce.pages.PageReadiness;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 
 import java.time.Duration;
 
+/**
+ * Owns one WebDriver per TestNG worker thread, so test methods can run in parallel
+ * (see ParallelSuiteListener) while each keeps exclusive use of its browser.
+ * When the driver pool is enabled, browsers are leased from DriverPool and handed back
+ * after the test instead of being quit.
+ */
 public abstract class BaseTest {
-    protected WebDriver driver;
-    protected WebDriverWait wait;
+    private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>();
+    private static final ThreadLocal<WebDriverWait> WAIT = new ThreadLocal<>();
+
+    protected WebDriver getDriver() {
+        return DRIVER.get();
+    }
+
+    protected WebDriverWait getWait() {
+        return WAIT.get();
+    }
+
+    /**
+     * Runs a named page-object stage; with StageRetryAnalyzer, a retry resumes after the last checkpointed stage.
+     *
+     * @param checkpoint checkpoint captured when the stage succeeds, or null
+     */
+    protected void stage(String name, String checkpoint, Runnable body) {
+        Stages.run(getDriver(), name, checkpoint, body);
+    }
 
     @BeforeMethod(alwaysRun = true)
     public void setUp() {
-        driver = DriverFactory.createDriver();
+        WebDriver driver = TestConfig.isDriverPoolEnabled() ? DriverPool.lease() : DriverFactory.createDriver();
+        DRIVER.set(driver);
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(TestConfig.getImplicitWaitSeconds()));
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+        // Consent is seeded before the first navigation so the banner never renders
+        long seedStart = System.nanoTime();
+        boolean seeded = ConsentHandler.preSeed(driver);
+        StepTimings.record("BaseTest.consentPreSeed", System.nanoTime() - seedStart);
+        if (TestConfig.isTrafficRecordingEnabled()) {
+            // The landing page is part of every recorded journey
+            TrafficRecorder.start(driver);
+        }
         driver.get(TestConfig.getBaseUrl());
-        wait = new WebDriverWait(driver, Duration.ofSeconds(TestConfig.getExplicitWaitSeconds()));
+        // Implicit waits stay off (implicitWaitSeconds=0): absence checks return at once and every
+        // wait goes through AdaptiveWait, whose timeouts are learned per call site
+        WebDriverWait wait = new AdaptiveWait(driver);
+        WAIT.set(wait);
         
-        // Wait for page to be ready and JavaScript to finish
-        try {
-            wait.until(webDriver -> {
-                if (webDriver == null) return false;
-                org.openqa.selenium.JavascriptExecutor js = (org.openqa.selenium.JavascriptExecutor) webDriver;
-                String readyState = (String) js.executeScript("return document.readyState");
-                if (!"complete".equals(readyState)) return false;
-                // Also check if jQuery is loaded and active (common in Magento)
-                try {
-                    Object jQueryActive = js.executeScript("return typeof jQuery !== 'undefined' ? jQuery.active : 0");
-                    if (jQueryActive instanceof Number && ((Number) jQueryActive).intValue() > 0) {
-                        return false; // jQuery AJAX still active
-                    }
-                } catch (Exception ignored) {
-                    // jQuery might not be present, that's okay
-                }
-                return true;
-            });
-        } catch (Exception e) {
-            // Continue even if readyState check fails
+        // Wait for the DOM, pending AJAX and RequireJS modules to settle (single async script)
+        if (!PageReadiness.await(driver)) {
+            System.out.println("Page did not settle within the explicit wait, continuing anyway");
         }
         
-        // Dismiss any cookie consent banners or modals that might block elements
-        try {
-            // Try to find and close common cookie consent elements
-            String[] cookieSelectors = {
-                "button[id*='cookie']",
-                "button[class*='cookie']",
-                "button[id*='accept']",
-                "button[class*='accept']",
-                "a[id*='cookie']",
-                ".cookie-banner button",
-                "#cookie-banner button"
-            };
-            
-            for (String selector : cookieSelectors) {
-                try {
-                    By cookieBy = By.cssSelector(selector);
-                    var elements = driver.findElements(cookieBy);
-                    if (!elements.isEmpty() && elements.get(0).isDisplayed()) {
-                        elements.get(0).click();
-                        // Wait for the element to disappear using the selector, not the cached element
-                        wait.until(ExpectedConditions.invisibilityOfElementLocated(cookieBy));
-                        break;
-                    }
-                } catch (Exception ignored) {
-                    // Continue to next selector
-                }
-            }
-        } catch (Exception e) {
-            // Ignore if cookie banner handling fails
+        // Dismiss any cookie consent banner that the pre-seeded consent did not prevent
+        long consentStart = System.nanoTime();
+        if (!seeded) {
+            ConsentHandler.seedCurrentPage(driver);
         }
+        ConsentHandler.dismissBanner(driver);
+        StepTimings.record("BaseTest.consent", System.nanoTime() - consentStart);
     }
 
     @AfterMethod(alwaysRun = true)
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
+    public void tearDown(ITestResult result) {
+        WebDriver driver = DRIVER.get();
+        DRIVER.remove();
+        WAIT.remove();
+        if (driver == null) {
+            return;
+        }
+        if (TestConfig.isTrafficRecordingEnabled()) {
+            // Only complete journeys make replayable scenarios
+            TrafficRecorder.stop(driver, result.getTestClass().getRealClass().getSimpleName() + "."
+                + result.getMethod().getMethodName(), result.isSuccess());
+        }
+        if (TestConfig.isDriverPoolEnabled()) {
+            DriverPool.release(driver);
+        } else {
+            NetworkTracker.forget(driver);
+            TrafficRecorder.forget(driver);
+            try {
+                driver.quit();
+            } finally {
+                AdmissionControl.released(driver);
+            }
         }
     }
 }
@@ -1,61 +1,115 @@
 package com.ecommerce.tests;
 
+import com.ecommerce.config.Checkpoints;
+import com.ecommerce.config.TestConfig;
+import com.ecommerce.data.CatalogDataProvider;
+import com.ecommerce.fixtures.CartFixtures;
+import com.ecommerce.listeners.StageRetryAnalyzer;
 import com.ecommerce.pages.*;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class EcommerceFlowTest extends BaseTest {
 
+    // Product added by addProductToCart and checked out by guestCheckoutFlow, whichever way its cart is built
+    private static final String CHECKOUT_SKU = "24-MB01";
+    private static final String CHECKOUT_PRODUCT = "Joust Duffle Bag";
+
+    // Session checkpoints (see Checkpoints): a guest cart holding the checkout product, saved by addProductToCart
+    // and by guestCheckoutFlow, and a filled-in shipping step guestCheckoutFlow saves for its own stage retries
+    private static final String CHECKOUT_CART = "checkout-cart-" + CHECKOUT_SKU;
+    private static final String CHECKOUT_SHIPPING = "checkout-shipping-" + CHECKOUT_SKU;
+
     @Test(description = "Navigation entre pages principales")
     public void navigationBetweenMainSections() {
-        HomePage home = new HomePage(driver, wait);
+        HomePage home = new HomePage(getDriver(), getWait());
         Assert.assertTrue(home.isLoaded(), "La page d'accueil n'est pas chargée.");
 
         home.goToCategory("What's New");
-        Assert.assertTrue(driver.getTitle().toLowerCase().contains("new"), "La navigation vers What's New a échoué.");
+        Assert.assertTrue(getDriver().getTitle().toLowerCase().contains("new"), "La navigation vers What's New a échoué.");
 
-        driver.navigate().back();
+        getDriver().navigate().back();
         home.goToCategory("Women");
-        Assert.assertTrue(driver.getTitle().toLowerCase().contains("women"), "La navigation vers Women a échoué.");
+        Assert.assertTrue(getDriver().getTitle().toLowerCase().contains("women"), "La navigation vers Women a échoué.");
     }
 
     @Test(description = "Recherche d'un produit et vérification des résultats")
     public void searchProduct() {
-        HomePage home = new HomePage(driver, wait);
+        HomePage home = new HomePage(getDriver(), getWait());
         Assert.assertTrue(home.isLoaded(), "La page d'accueil n'est pas chargée.");
 
         SearchResultsPage results = home.search("jacket");
         Assert.assertTrue(results.hasResults(), "Aucun résultat de recherche retourné.");
     }
 
+    @Test(description = "Recherche et ouverture de produits depuis l'export catalogue",
+        dataProvider = "catalogSearch", dataProviderClass = CatalogDataProvider.class)
+    public void searchCatalogProduct(String query, String productName, boolean addToCart) {
+        HomePage home = new HomePage(getDriver(), getWait());
+        SearchResultsPage results = home.search(query);
+        Assert.assertTrue(results.hasResults(), "Aucun résultat de recherche pour '" + query + "'.");
+
+        ProductPage product = results.openProductByName(productName);
+        Assert.assertTrue(getDriver().getTitle().toLowerCase().contains(productName.toLowerCase()),
+            "La page produit de '" + productName + "' n'est pas affichée (titre : " + getDriver().getTitle() + ").");
+        if (addToCart) {
+            CartPage cart = product.addToCartAndOpenCart();
+            Assert.assertTrue(cart.hasItems(), "Le panier devrait contenir '" + productName + "'.");
+        }
+    }
+
     @Test(description = "Ajout d'un produit au panier")
     public void addProductToCart() {
-        HomePage home = new HomePage(driver, wait);
-        SearchResultsPage results = home.search("jacket");
+        HomePage home = new HomePage(getDriver(), getWait());
+        SearchResultsPage results = home.search("bag");
         Assert.assertTrue(results.hasResults(), "Aucun résultat de recherche retourné.");
 
-        ProductPage product = results.openProductByName("jacket");
+        ProductPage product = results.openProductByName(CHECKOUT_PRODUCT);
         CartPage cart = product.addToCartAndOpenCart();
         Assert.assertTrue(cart.hasItems(), "Le panier devrait contenir au moins un article.");
+        // This cart is not used any further: guestCheckoutFlow can start its checkout from it
+        Checkpoints.capture(getDriver(), CHECKOUT_CART);
     }
 
-    @Test(description = "Parcours checkout invité jusqu'au paiement")
+    @Test(description = "Parcours checkout invité jusqu'au paiement", retryAnalyzer = StageRetryAnalyzer.class)
     public void guestCheckoutFlow() {
-        HomePage home = new HomePage(driver, wait);
-        ProductPage product = home.search("bag").openProductByName("bag");
-        CartPage cart = product.addToCartAndOpenCart();
-        Assert.assertTrue(cart.hasItems(), "Le panier devrait contenir au moins un article.");
+        stage("cart", CHECKOUT_CART, () -> {
+            // Start from a saved cart holding the checkout product when a previous test left one, else build it
+            // through the REST fixtures when enabled, else through the UI; a retry resumes from the checkpoint
+            // captured below (see Stages). A traffic recording needs the whole journey in the browser
+            boolean recording = TestConfig.isTrafficRecordingEnabled();
+            CartPage cart;
+            if (!recording && Checkpoints.restore(getDriver(), CHECKOUT_CART)) {
+                cart = new CartPage(getDriver(), getWait());
+            } else if (!recording && TestConfig.isApiFixturesEnabled()) {
+                cart = CartFixtures.openCartWith(getDriver(), getWait(), CHECKOUT_SKU, 1);
+            } else {
+                HomePage home = new HomePage(getDriver(), getWait());
+                ProductPage product = home.search("bag").openProductByName(CHECKOUT_PRODUCT);
+                Assert.assertTrue(getDriver().getTitle().contains(CHECKOUT_PRODUCT),
+                    "La page produit de '" + CHECKOUT_PRODUCT + "' n'est pas affichée (titre : " + getDriver().getTitle() + ").");
+                cart = product.addToCartAndOpenCart();
+            }
+            Assert.assertTrue(cart.hasItems(), "Le panier devrait contenir '" + CHECKOUT_PRODUCT + "'.");
+        });
 
-        CheckoutPage checkout = cart.proceedToCheckout();
-        Assert.assertTrue(checkout.isLoaded(), "La page checkout n'est pas affichée.");
+        stage("shipping", CHECKOUT_SHIPPING, () -> {
+            CheckoutPage checkout = new CartPage(getDriver(), getWait()).proceedToCheckout();
+            Assert.assertTrue(checkout.isLoaded(), "La page checkout n'est pas affichée.");
+            checkout.fillGuestShippingForm("qa+guest@example.com");
+        });
 
-        checkout.fillGuestShippingForm("qa+guest@example.com");
-        checkout.selectShippingMethodAndContinue();
-        checkout.placeOrder();
-        
-        Assert.assertTrue(checkout.isOrderConfirmed(), "La commande n'a pas été confirmée.");
-        String orderNumber = checkout.getOrderNumber();
-        System.out.println("Order placed successfully with order number: " + orderNumber);
+        stage("placeOrder", null, () -> {
+            CheckoutPage checkout = new CheckoutPage(getDriver(), getWait());
+            checkout.selectShippingMethodAndContinue();
+            checkout.placeOrder();
+            // The order consumes the guest cart: neither checkpoint can be restored any more
+            Checkpoints.invalidate(CHECKOUT_CART);
+            Checkpoints.invalidate(CHECKOUT_SHIPPING);
+
+            Assert.assertTrue(checkout.isOrderConfirmed(), "La commande n'a pas été confirmée.");
+            String orderNumber = checkout.getOrderNumber();
+            System.out.println("Order placed successfully with order number: " + orderNumber);
+        });
     }
 }
-